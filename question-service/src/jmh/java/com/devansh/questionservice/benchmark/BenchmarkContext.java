@@ -0,0 +1,98 @@
+package com.devansh.questionservice.benchmark;
+
+import com.devansh.questionservice.QuestionServiceApplication;
+import com.devansh.questionservice.dao.QuestionBatchDao;
+import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.model.Response;
+import com.devansh.questionservice.service.CategoryQuestionIndex;
+import com.devansh.questionservice.service.QuestionDictionary;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots question-service without a web server against an in-memory H2 database
+ * so benchmarks exercise the real service and repository beans.
+ */
+final class BenchmarkContext {
+
+    static final String[] CATEGORIES = {"Java", "Python", "SQL", "Spring", "Docker"};
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        // Passed as command-line arguments so they take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--eureka.client.enabled=false",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(QuestionServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Insert {@code count} synthetic questions through the bulk-insert path, refresh the
+     * category index and return the generated ids.
+     */
+    static List<Integer> seed(ConfigurableApplicationContext context, int count) {
+        QuestionBatchDao batchDao = context.getBean(QuestionBatchDao.class);
+        QuestionDictionary dictionary = context.getBean(QuestionDictionary.class);
+
+        List<Question> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question question = question(i);
+            dictionary.canonicalize(question);
+            batch.add(question);
+            if (batch.size() == SEED_BATCH_SIZE || i == count - 1) {
+                ids.addAll(batchDao.insertBatch(batch));
+                batch.clear();
+            }
+        }
+        context.getBean(CategoryQuestionIndex.class).reconcile();
+        return ids;
+    }
+
+    static Question question(int i) {
+        Question question = new Question();
+        question.setQuestionTitle("Synthetic question #" + i + " about topic " + (i % 97));
+        question.setOption1("Option A for " + i);
+        question.setOption2("Option B for " + i);
+        question.setOption3("Option C for " + i);
+        question.setOption4("Option D for " + i);
+        question.setRightAnswer("Option B for " + i);
+        question.setDifficultylevel(i % 3 == 0 ? "Hard" : "Easy");
+        question.setCategory(CATEGORIES[i % CATEGORIES.length]);
+        return question;
+    }
+
+    /**
+     * A submission answering every question, right for roughly half of them.
+     */
+    static List<Response> submission(List<Integer> ids, List<Integer> seedIndexes) {
+        List<Response> responses = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Response response = new Response();
+            response.setId(ids.get(i));
+            response.setResponse((i % 2 == 0 ? "Option B for " : "Option C for ") + seedIndexes.get(i));
+            responses.add(response);
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,87 @@
+package com.devansh.questionservice.benchmark;
+
+import com.devansh.questionservice.dao.QuestionDao;
+import com.devansh.questionservice.model.Response;
+import com.devansh.questionservice.service.JsonArrayWriter;
+import com.devansh.questionservice.service.QuestionDictionary;
+import com.devansh.questionservice.service.QuestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The quiz-taking path of question-service against synthetic banks of increasing size:
+ * rendering a quiz, grading a submission and picking random questions for a new quiz.
+ * Compare runs between releases with the JSON written to target/jmh-result.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class QuestionHotPathBenchmark {
+
+    private static final int QUIZ_SIZE = 50;
+
+    @Param({"1000", "100000", "1000000"})
+    int bankSize;
+
+    private ConfigurableApplicationContext context;
+    private QuestionService questionService;
+    private QuestionDao questionDao;
+    private Short javaCategoryId;
+    private List<Integer> quizIds;
+    private List<Response> submission;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        questionService = context.getBean(QuestionService.class);
+        questionDao = context.getBean(QuestionDao.class);
+        javaCategoryId = context.getBean(QuestionDictionary.class).categoryId("Java");
+
+        List<Integer> bank = BenchmarkContext.seed(context, bankSize);
+        Random random = new Random(42);
+        quizIds = new ArrayList<>(QUIZ_SIZE);
+        List<Integer> seedIndexes = new ArrayList<>(QUIZ_SIZE);
+        for (int i = 0; i < QUIZ_SIZE; i++) {
+            int index = random.nextInt(bank.size());
+            quizIds.add(bank.get(index));
+            seedIndexes.add(index);
+        }
+        submission = BenchmarkContext.submission(quizIds, seedIndexes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void getQuestionsFromId() throws IOException {
+        QuestionService.EncodedQuestions questions = questionService.getEncodedQuestions(quizIds);
+        JsonArrayWriter.write(questions.fragments(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public Integer getScore() {
+        return questionService.getScore(submission).getBody();
+    }
+
+    @Benchmark
+    public List<Integer> randomSelection() {
+        return questionService.getQuestionsForQuiz("Java", 20).getBody();
+    }
+
+    @Benchmark
+    public List<Integer> randomSelectionSql() {
+        return questionDao.findRandomQuestionsByCategoryId(javaCategoryId, 20);
+    }
+}
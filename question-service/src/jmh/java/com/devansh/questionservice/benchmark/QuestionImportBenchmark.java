@@ -0,0 +1,61 @@
+package com.devansh.questionservice.benchmark;
+
+import com.devansh.questionservice.model.ImportReport;
+import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.service.QuestionImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import throughput per chunk size. Scores are reported per row
+ * ({@link OperationsPerInvocation}), so ops/s is rows inserted per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(QuestionImportBenchmark.ROWS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QuestionImportBenchmark {
+
+    static final int ROWS = 10_000;
+
+    @Param({"100", "1000", "5000"})
+    int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private QuestionImportService importService;
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start("question.import.chunk-size=" + chunkSize);
+        importService = context.getBean(QuestionImportService.class);
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < ROWS; i++) {
+            Question question = BenchmarkContext.question(i);
+            out.write(objectMapper.writeValueAsBytes(question));
+            out.write('\n');
+        }
+        ndjson = out.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportReport importNdjson() throws IOException {
+        return importService.importNdjson(new ByteArrayInputStream(ndjson));
+    }
+}
@@ -0,0 +1,72 @@
+package com.devansh.questionservice.benchmark;
+
+import com.devansh.questionservice.dao.QuestionDao;
+import com.devansh.questionservice.service.QuestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of /question/getQuestions resolution as the requested id list grows.
+ * Run with {@code question.cache.enabled=false} to measure the database path alone.
+ * {@code bulkLookup} should stay roughly flat from 10 to 500 ids while
+ * {@code perIdLookup} (the previous findById loop) grows linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionLookupBenchmark {
+
+    private static final int BANK_SIZE = 5_000;
+
+    @Param({"10", "50", "100", "500"})
+    int idCount;
+
+    @Param({"false", "true"})
+    boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private QuestionService questionService;
+    private QuestionDao questionDao;
+    private List<Integer> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("question.cache.enabled=" + cacheEnabled);
+        questionService = context.getBean(QuestionService.class);
+        questionDao = context.getBean(QuestionDao.class);
+
+        List<Integer> bank = new ArrayList<>(BenchmarkContext.seed(context, BANK_SIZE));
+        Collections.shuffle(bank, new Random(42));
+        ids = new ArrayList<>(bank.subList(0, idCount));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public QuestionService.EncodedQuestions bulkLookup() {
+        return questionService.getEncodedQuestions(ids);
+    }
+
+    @Benchmark
+    public int perIdLookup() {
+        int found = 0;
+        for (Integer id : ids) {
+            if (questionDao.findById(id).isPresent()) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,64 @@
+package com.devansh.questionservice.benchmark;
+
+import com.devansh.questionservice.model.QuestionWrapper;
+import com.devansh.questionservice.service.JsonArrayWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing a /question/getQuestions body once the questions are in memory:
+ * building wrappers and serializing them with Jackson (the previous path) versus
+ * concatenating cached pre-encoded JSON fragments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionSerializationBenchmark {
+
+    @Param({"10", "50", "500"})
+    int questionCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<QuestionWrapper> wrappers;
+    private List<byte[]> fragments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wrappers = new ArrayList<>(questionCount);
+        fragments = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            QuestionWrapper wrapper = new QuestionWrapper(i, "Synthetic question #" + i + " about topic " + (i % 97),
+                    "Option A for " + i, "Option B for " + i, "Option C for " + i, "Option D for " + i);
+            wrappers.add(wrapper);
+            fragments.add(objectMapper.writeValueAsBytes(wrapper));
+        }
+    }
+
+    @Benchmark
+    public byte[] jacksonSerialization() throws IOException {
+        List<QuestionWrapper> response = new ArrayList<>(wrappers.size());
+        for (QuestionWrapper source : wrappers) {
+            response.add(new QuestionWrapper(source.getId(), source.getQuestionTitle(), source.getOption1(),
+                    source.getOption2(), source.getOption3(), source.getOption4()));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        objectMapper.writeValue(out, response);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] preEncodedFragments() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) JsonArrayWriter.length(fragments));
+        JsonArrayWriter.write(fragments, out);
+        return out.toByteArray();
+    }
+}
@@ -1,25 +1,41 @@
 package com.devansh.questionservice.controller;
 
 
+import com.devansh.questionservice.model.ImportReport;
 import com.devansh.questionservice.model.Question;
-import com.devansh.questionservice.model.QuestionWrapper;
+import com.devansh.questionservice.model.QuestionPage;
 import com.devansh.questionservice.model.Response;
+import com.devansh.questionservice.service.QuestionImportService;
 import com.devansh.questionservice.service.QuestionService;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("question")
 public class QuestionController {
 
+    private static final Logger log = LoggerFactory.getLogger(QuestionController.class);
+
     @Autowired
     QuestionService questionService;
 
+    @Autowired
+    QuestionImportService questionImportService;
+
     @Autowired
     Environment environment;
 
@@ -28,16 +44,54 @@ public class QuestionController {
         return questionService.getAllQuestions();
     }
 
+    @GetMapping(value = "allQuestions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions(){
+        return questionService.streamAllQuestions();
+    }
+
+    @GetMapping("allQuestions/page")
+    public ResponseEntity<QuestionPage> getQuestionsPage
+            (@RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size){
+        return questionService.getQuestionsPage(after, size);
+    }
+
     @GetMapping("category/{category}")
     public ResponseEntity<List<Question>> getQuestionsByCategory(@PathVariable String category){
         return questionService.getQuestionsByCategory(category);
     }
 
+    @GetMapping(value = "category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByCategory(@PathVariable String category){
+        return questionService.streamQuestionsByCategory(category);
+    }
+
+    @GetMapping("category/{category}/page")
+    public ResponseEntity<QuestionPage> getQuestionsByCategoryPage
+            (@PathVariable String category,
+             @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size){
+        return questionService.getQuestionsByCategoryPage(category, after, size);
+    }
+
     @PostMapping("add")
     public ResponseEntity<String> addQuestion(@RequestBody Question question){
         return  questionService.addQuestion(question);
     }
 
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> bulkImportNdjson(InputStream body) throws IOException {
+        return new ResponseEntity<>(questionImportService.importNdjson(body), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "bulk", consumes = "text/csv")
+    public ResponseEntity<ImportReport> bulkImportCsv(InputStream body) throws IOException {
+        return new ResponseEntity<>(questionImportService.importCsv(body), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReport> bulkImport(@RequestBody List<Question> questions) {
+        return new ResponseEntity<>(questionImportService.importQuestions(questions), HttpStatus.OK);
+    }
+
     @GetMapping("generate")
     public ResponseEntity<List<Integer>> getQuestionsForQuiz
             (@RequestParam String categoryName, @RequestParam Integer numQuestions ){
@@ -45,9 +99,24 @@ public class QuestionController {
     }
 
     @PostMapping("getQuestions")
-    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(@RequestBody List<Integer> questionIds){
-        System.out.println(environment.getProperty("local.server.port"));
-        return questionService.getQuestionsFromId(questionIds);
+    public void getQuestionsFromId(@RequestBody List<Integer> questionIds, HttpServletResponse response)
+            throws IOException {
+        log.debug("getQuestions for {} ids served on port {}",
+                questionIds.size(), environment.getProperty("local.server.port"));
+        questionService.writeQuestionsFromId(questionIds, response);
+    }
+
+    /**
+     * Clusters of existing near-duplicate questions (ids), largest first
+     */
+    @GetMapping("duplicates")
+    public ResponseEntity<List<List<Integer>>> getDuplicateClusters(){
+        return questionService.getDuplicateClusters();
+    }
+
+    @GetMapping("cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats(){
+        return questionService.getCacheStats();
     }
 
     @PostMapping("getScore")
@@ -56,6 +125,12 @@ public class QuestionController {
         return questionService.getScore(responses);
     }
 
+    @PostMapping("getScores")
+    public ResponseEntity<List<Integer>> getScores(@RequestBody List<List<Response>> submissions)
+    {
+        return questionService.getScores(submissions);
+    }
+
 
     // generate
     // getQuestions (questionid)
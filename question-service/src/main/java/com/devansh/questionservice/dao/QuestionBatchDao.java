@@ -0,0 +1,79 @@
+package com.devansh.questionservice.dao;
+
+import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.service.QuestionDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row question inserts for bulk import. Each call is one JDBC batch in its own
+ * transaction; with {@code reWriteBatchedInserts=true} on the PostgreSQL URL the driver
+ * collapses the batch into multi-value INSERT statements.
+ */
+@Repository
+public class QuestionBatchDao {
+
+    private static final String INSERT_QUESTION =
+            "INSERT INTO question (question_title, option1, option2, option3, option4, right_answer, difficulty_id, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionDictionary dictionary;
+
+    @Autowired
+    public QuestionBatchDao(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            QuestionDictionary dictionary) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Insert all questions atomically and return their generated ids in input order.
+     * Category and difficulty names must already be registered, see {@link QuestionDictionary#canonicalize}.
+     */
+    public List<Integer> insertBatch(List<Question> questions) {
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<Integer>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_QUESTION, new String[]{"id"})) {
+                for (Question question : questions) {
+                    bind(ps, question);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Integer> ids = new ArrayList<>(questions.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getInt(1));
+                    }
+                }
+                return ids;
+            }
+        }));
+    }
+
+    private void bind(PreparedStatement ps, Question question) throws SQLException {
+        ps.setString(1, question.getQuestionTitle());
+        ps.setString(2, question.getOption1());
+        ps.setString(3, question.getOption2());
+        ps.setString(4, question.getOption3());
+        ps.setString(5, question.getOption4());
+        ps.setString(6, question.getRightAnswer());
+        ps.setObject(7, dictionary.difficultyId(question.getDifficultylevel()), Types.SMALLINT);
+        ps.setObject(8, dictionary.categoryId(question.getCategory()), Types.SMALLINT);
+    }
+}
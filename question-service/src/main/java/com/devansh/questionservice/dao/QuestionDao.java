@@ -2,10 +2,13 @@ package com.devansh.questionservice.dao;
 
 
 import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.model.QuestionWrapper;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,7 +16,32 @@ public interface QuestionDao extends JpaRepository<Question, Integer> {
 
     List<Question> findByCategory(String category);
 
-    @Query(value = "SELECT q.id FROM question q Where q.category=:category ORDER BY RANDOM() LIMIT :numQ", nativeQuery = true)
-    List<Integer> findRandomQuestionsByCategory(String category, int numQ);
-}
+    List<Question> findByIdGreaterThanOrderByIdAsc(Integer afterId, Pageable pageable);
+
+    List<Question> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Integer afterId, Pageable pageable);
+
+    @Query(value = "SELECT q.id FROM question q Where q.category_id=:categoryId ORDER BY RANDOM() LIMIT :numQ", nativeQuery = true)
+    List<Integer> findRandomQuestionsByCategoryId(Short categoryId, int numQ);
 
+    /**
+     * Resolve a set of question ids in a single query, projecting straight into
+     * {@link QuestionWrapper} so {@code rightAnswer} is never read.
+     * Rows come back in database order; callers re-order as needed.
+     */
+    @Query("SELECT new com.devansh.questionservice.model.QuestionWrapper(" +
+            "q.id, q.questionTitle, q.option1, q.option2, q.option3, q.option4) " +
+            "FROM Question q WHERE q.id IN :ids")
+    List<QuestionWrapper> findWrappersByIdIn(Collection<Integer> ids);
+
+    /**
+     * (category, id) pairs for every question, used to rebuild the in-memory category index.
+     */
+    @Query("SELECT q.category, q.id FROM Question q")
+    List<Object[]> findAllCategoryIds();
+
+    /**
+     * (id, rightAnswer) pairs for the given ids, used to warm the grading answer key.
+     */
+    @Query("SELECT q.id, q.rightAnswer FROM Question q WHERE q.id IN :ids")
+    List<Object[]> findAnswerKeysByIdIn(Collection<Integer> ids);
+}
@@ -0,0 +1,75 @@
+package com.devansh.questionservice.dao;
+
+import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.service.QuestionDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Reads questions through a server-side JDBC cursor and hands each row to a callback,
+ * so callers can stream arbitrarily large result sets with constant heap.
+ * <p>
+ * PostgreSQL only uses a cursor when auto-commit is off and a fetch size is set,
+ * hence the read-only transaction around every query.
+ */
+@Repository
+public class QuestionStreamDao {
+
+    private static final String SELECT_QUESTIONS =
+            "SELECT id, question_title, option1, option2, option3, option4, right_answer, difficulty_id, category_id " +
+            "FROM question";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final QuestionDictionary dictionary;
+
+    @Autowired
+    public QuestionStreamDao(
+            DataSource dataSource,
+            QuestionDictionary dictionary,
+            PlatformTransactionManager transactionManager,
+            @Value("${question.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.dictionary = dictionary;
+    }
+
+    public void streamAll(Consumer<Question> consumer) {
+        stream(SELECT_QUESTIONS + " ORDER BY id", consumer);
+    }
+
+    public void streamByCategory(Short categoryId, Consumer<Question> consumer) {
+        stream(SELECT_QUESTIONS + " WHERE category_id = ? ORDER BY id", consumer, categoryId);
+    }
+
+    private void stream(String sql, Consumer<Question> consumer, Object... args) {
+        RowCallbackHandler handler = rs -> consumer.accept(mapQuestion(rs));
+        readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, args));
+    }
+
+    private Question mapQuestion(ResultSet rs) throws SQLException {
+        Question question = new Question();
+        question.setId(rs.getInt("id"));
+        question.setQuestionTitle(rs.getString("question_title"));
+        question.setOption1(rs.getString("option1"));
+        question.setOption2(rs.getString("option2"));
+        question.setOption3(rs.getString("option3"));
+        question.setOption4(rs.getString("option4"));
+        question.setRightAnswer(rs.getString("right_answer"));
+        question.setDifficultylevel(dictionary.difficultyName(rs.getObject("difficulty_id", Short.class)));
+        question.setCategory(dictionary.categoryName(rs.getObject("category_id", Short.class)));
+        return question;
+    }
+}
@@ -0,0 +1,35 @@
+package com.devansh.questionservice.metrics;
+
+/**
+ * Per-thread tally of JDBC statements executed and rows read, reset at the start of each
+ * HTTP request by {@link QueryMetricsFilter} and incremented by the counting DataSource proxy.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCounter() {
+    }
+
+    static void reset() {
+        long[] counts = COUNTS.get();
+        counts[0] = 0;
+        counts[1] = 0;
+    }
+
+    static void statementExecuted() {
+        COUNTS.get()[0]++;
+    }
+
+    static void rowRead() {
+        COUNTS.get()[1]++;
+    }
+
+    public static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    public static long rows() {
+        return COUNTS.get()[1];
+    }
+}
@@ -0,0 +1,55 @@
+package com.devansh.questionservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many JDBC statements each request executed and how many rows it read,
+ * tagged by endpoint. A statements-per-request mean well above 1 on an endpoint points
+ * at an N+1 access pattern. Work done on async threads (NDJSON streaming) is not attributed.
+ */
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public QueryMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("question.db.statements", "JDBC statements executed per request", uri, request)
+                    .record(QueryCounter.statements());
+            summary("question.db.rows", "Rows read from JDBC result sets per request", uri, request)
+                    .record(QueryCounter.rows());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String uri, HttpServletRequest request) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.devansh.questionservice.model;
+
+import com.devansh.questionservice.service.QuestionDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Maps {@link Question#getCategory()} names to {@code category.id}. Unknown names
+ * convert to null, so queries for them simply match nothing.
+ * Instantiated by Hibernate through Spring; the dictionary is looked up lazily
+ * because converters are created while the EntityManagerFactory is being built.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Short> {
+
+    private final ObjectProvider<QuestionDictionary> dictionary;
+
+    public CategoryConverter(ObjectProvider<QuestionDictionary> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String name) {
+        return name == null ? null : dictionary.getObject().categoryId(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short id) {
+        return id == null ? null : dictionary.getObject().categoryName(id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.devansh.questionservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Difficulty level dictionary entry. Names are unique case-insensitively;
+ * {@code name} holds the canonical spelling returned by the API.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "difficulty_level")
+public class DifficultyLevel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+}
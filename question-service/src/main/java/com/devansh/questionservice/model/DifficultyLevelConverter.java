@@ -0,0 +1,30 @@
+package com.devansh.questionservice.model;
+
+import com.devansh.questionservice.service.QuestionDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Maps {@link Question#getDifficultylevel()} names to {@code difficulty_level.id};
+ * same lookup rules as {@link CategoryConverter}.
+ */
+@Converter
+public class DifficultyLevelConverter implements AttributeConverter<String, Short> {
+
+    private final ObjectProvider<QuestionDictionary> dictionary;
+
+    public DifficultyLevelConverter(ObjectProvider<QuestionDictionary> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String name) {
+        return name == null ? null : dictionary.getObject().difficultyId(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short id) {
+        return id == null ? null : dictionary.getObject().difficultyName(id);
+    }
+}
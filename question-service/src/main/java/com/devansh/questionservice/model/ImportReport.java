@@ -0,0 +1,37 @@
+package com.devansh.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk question import. Rows are numbered from 1 in input order
+ * (excluding a CSV header); {@code insertedIds} follow the order of accepted rows.
+ * A row rejected as a near-duplicate carries the id of the question it duplicates
+ * in {@code duplicateOf}, when that question is stored.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private long accepted;
+    private long rejected;
+    private long elapsedMillis;
+    private List<Integer> insertedIds = new ArrayList<>();
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+        private Integer duplicateOf;
+
+        public RowError(long row, String message) {
+            this(row, message, null);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.devansh.questionservice.model;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Data
 @Entity
+@Table(name = "question", indexes = @Index(name = "ix_question_category_difficulty", columnList = "category_id, difficulty_id"))
 public class Question {
 
     @Id
@@ -19,9 +24,15 @@ public class Question {
     private String option3;
     private String option4;
     private String rightAnswer;
+
+    // Stored as dictionary ids; exposed as canonical names
+    @Convert(converter = DifficultyLevelConverter.class)
+    @Column(name = "difficulty_id")
     private String difficultylevel;
+
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
 
 
 }
-
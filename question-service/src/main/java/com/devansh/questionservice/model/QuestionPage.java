@@ -0,0 +1,19 @@
+package com.devansh.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of questions. Pass {@code nextCursor} back as {@code after}
+ * to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPage {
+    private List<Question> questions;
+    private Integer nextCursor;
+}
@@ -0,0 +1,128 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionDao;
+import com.devansh.questionservice.model.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Question id -> right answer lookup used for grading.
+ * <p>
+ * Answers are kept in a primitive {@link AnswerKeyTable}, so a million-question bank costs a
+ * few arrays instead of a million boxed map entries. Misses are loaded in bulk, so a
+ * submission is graded with at most one query per chunk of unseen ids and none when warm.
+ * Entries are reloaded after {@code question.answer-cache.ttl-ms}, which bounds how long an
+ * answer edited on another instance is graded against the old key.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final QuestionDao questionDao;
+    private final long ttlMillis;
+    private final int fetchBatchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AnswerKeyTable table;
+
+    @Autowired
+    public AnswerKeyCache(
+            QuestionDao questionDao,
+            @Value("${question.answer-cache.max-entries:1000000}") int maxEntries,
+            @Value("${question.answer-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${question.fetch.batch-size:500}") int fetchBatchSize) {
+        this.questionDao = questionDao;
+        this.ttlMillis = ttlMillis;
+        this.fetchBatchSize = fetchBatchSize;
+        this.table = new AnswerKeyTable(maxEntries);
+    }
+
+    /**
+     * Number of correct responses in a single submission.
+     */
+    public int score(List<Response> responses) {
+        return scoreAll(List.of(responses)).get(0);
+    }
+
+    /**
+     * Grade many submissions at once; all unseen ids across every submission are loaded together.
+     * Responses that miss the cache are graded from the rows just loaded, so eviction or a
+     * concurrent load can never turn a right answer into a wrong one.
+     */
+    public List<Integer> scoreAll(List<List<Response>> submissions) {
+        int[] scores = new int[submissions.size()];
+        List<Deferred> deferred = new ArrayList<>();
+        List<Integer> unseen = new ArrayList<>();
+        long freshSince = System.currentTimeMillis() - ttlMillis;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < submissions.size(); i++) {
+                for (Response response : submissions.get(i)) {
+                    Integer id = response.getId();
+                    if (id == null || id <= 0 || response.getResponse() == null) {
+                        continue;
+                    }
+                    String answer = table.get(id, freshSince);
+                    if (answer == null) {
+                        deferred.add(new Deferred(i, id, response.getResponse()));
+                        unseen.add(id);
+                    } else if (response.getResponse().equals(answer)) {
+                        scores[i]++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!deferred.isEmpty()) {
+            Map<Integer, String> loaded = load(unseen);
+            for (Deferred miss : deferred) {
+                if (miss.response().equals(loaded.get(miss.id()))) {
+                    scores[miss.submission()]++;
+                }
+            }
+        }
+
+        List<Integer> result = new ArrayList<>(scores.length);
+        for (int score : scores) {
+            result.add(score);
+        }
+        return result;
+    }
+
+    public void put(int id, String answer) {
+        lock.writeLock().lock();
+        try {
+            table.put(id, answer, System.currentTimeMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Integer, String> load(List<Integer> ids) {
+        Map<Integer, String> loaded = new HashMap<>();
+        for (List<Integer> chunk : QuestionService.chunks(QuestionService.distinctIds(ids), fetchBatchSize)) {
+            for (Object[] row : questionDao.findAnswerKeysByIdIn(chunk)) {
+                loaded.put((Integer) row[0], (String) row[1]);
+            }
+        }
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loaded.forEach((id, answer) -> table.put(id, answer, now));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded;
+    }
+
+    private record Deferred(int submission, int id, String response) {
+    }
+}
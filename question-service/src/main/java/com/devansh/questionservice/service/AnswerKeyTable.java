@@ -0,0 +1,164 @@
+package com.devansh.questionservice.service;
+
+/**
+ * Open-addressing {@code int -> String} table behind {@link AnswerKeyCache}.
+ * <p>
+ * Keys use linear probing with backward-shift deletion; answers, load times and reference
+ * bits live in parallel arrays. Once {@code maxEntries} keys are held, each new key evicts
+ * one entry chosen by a CLOCK sweep, so recently read answers survive and the rest go first.
+ * Not thread-safe; the cache guards it with a read/write lock.
+ */
+final class AnswerKeyTable {
+
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxEntries;
+
+    private int[] keys;
+    private String[] answers;
+    private long[] loadedAt;
+    private boolean[] referenced;
+    private int size;
+    private int hand;
+
+    AnswerKeyTable(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Answer for {@code id} if it was loaded at or after {@code freshSince}, otherwise null.
+     * Marks the entry as recently used; called under the read lock, where a lost update of
+     * the reference bit only makes eviction slightly less precise.
+     */
+    String get(int id, long freshSince) {
+        int slot = slotOf(id);
+        if (slot < 0 || loadedAt[slot] < freshSince) {
+            return null;
+        }
+        referenced[slot] = true;
+        return answers[slot];
+    }
+
+    void put(int id, String answer, long now) {
+        if (id <= 0) {
+            return;
+        }
+        int slot = slotOf(id);
+        if (slot >= 0) {
+            answers[slot] = answer;
+            loadedAt[slot] = now;
+            return;
+        }
+        if (size >= maxEntries) {
+            evictOne();
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        insert(id, answer, now, false);
+    }
+
+    boolean remove(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        deleteSlot(slot);
+        return true;
+    }
+
+    int slotOf(int id) {
+        int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+            if (keys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    // CLOCK: clear reference bits until an unreferenced entry comes under the hand
+    private void evictOne() {
+        int mask = keys.length - 1;
+        while (true) {
+            hand = (hand + 1) & mask;
+            if (keys[hand] == EMPTY) {
+                continue;
+            }
+            if (referenced[hand]) {
+                referenced[hand] = false;
+                continue;
+            }
+            deleteSlot(hand);
+            return;
+        }
+    }
+
+    private void insert(int id, String answer, long now, boolean reference) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        answers[slot] = answer;
+        loadedAt[slot] = now;
+        referenced[slot] = reference;
+        size++;
+    }
+
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                answers[hole] = answers[next];
+                loadedAt[hole] = loadedAt[next];
+                referenced[hole] = referenced[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        answers[hole] = null;
+        referenced[hole] = false;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        String[] oldAnswers = answers;
+        long[] oldLoadedAt = loadedAt;
+        boolean[] oldReferenced = referenced;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldAnswers[i], oldLoadedAt[i], oldReferenced[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        answers = new String[capacity];
+        loadedAt = new long[capacity];
+        referenced = new boolean[capacity];
+        size = 0;
+        hand = 0;
+    }
+
+    static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,193 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory index of question ids per category, used to pick random questions
+ * for a quiz without an {@code ORDER BY RANDOM()} sort on the database.
+ * Buckets are keyed by canonical category name (see {@link QuestionDictionary}).
+ * <p>
+ * Ids are kept in primitive {@code int[]} buckets. New and edited questions are applied
+ * incrementally by {@link QuestionService#addQuestion} and the importer; a periodic
+ * reconcile rebuilds the index from the table to pick up deletes and rows written by
+ * other instances. Changes made while a reconcile is reading the table are replayed
+ * onto the rebuilt index before it replaces the current one.
+ */
+@Component
+public class CategoryQuestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryQuestionIndex.class);
+
+    private final QuestionDao questionDao;
+
+    private volatile Map<String, IdBucket> buckets = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Guards bucket writes against the swap; pending is non-null only while a reconcile runs
+    private final Object changeLock = new Object();
+    private List<Change> pending;
+
+    @Autowired
+    public CategoryQuestionIndex(QuestionDao questionDao) {
+        this.questionDao = questionDao;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Pick up to {@code count} distinct random ids from the category using a
+     * partial Fisher–Yates shuffle: O(count) time, the shared bucket is not modified.
+     */
+    public List<Integer> sample(String category, int count) {
+        IdBucket bucket = buckets.get(category);
+        if (bucket == null || count <= 0) {
+            return new ArrayList<>();
+        }
+        return bucket.sample(count);
+    }
+
+    public void add(String category, int id) {
+        if (category == null) {
+            return;
+        }
+        synchronized (changeLock) {
+            if (pending != null) {
+                pending.add(new Change(category, id, true));
+            }
+            buckets.computeIfAbsent(category, c -> new IdBucket()).add(id);
+        }
+    }
+
+    /**
+     * Drop {@code id} from the bucket of the category it was indexed under.
+     */
+    public void remove(String category, int id) {
+        if (category == null) {
+            return;
+        }
+        synchronized (changeLock) {
+            if (pending != null) {
+                pending.add(new Change(category, id, false));
+            }
+            IdBucket bucket = buckets.get(category);
+            if (bucket != null) {
+                bucket.remove(id);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${question.index.reconcile-interval-ms:300000}",
+            fixedDelayString = "${question.index.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        synchronized (changeLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Map<String, IdBucket> rebuilt = new ConcurrentHashMap<>();
+            BitSet indexed = new BitSet();
+            for (Object[] row : questionDao.findAllCategoryIds()) {
+                String category = (String) row[0];
+                if (category != null) {
+                    int id = (Integer) row[1];
+                    rebuilt.computeIfAbsent(category, c -> new IdBucket()).add(id);
+                    indexed.set(id);
+                }
+            }
+
+            synchronized (changeLock) {
+                // The read may or may not have seen each change; replay them in order without duplicating ids
+                for (Change change : pending) {
+                    if (change.added()) {
+                        if (!indexed.get(change.id())) {
+                            rebuilt.computeIfAbsent(change.category(), c -> new IdBucket()).add(change.id());
+                            indexed.set(change.id());
+                        }
+                    } else {
+                        IdBucket bucket = rebuilt.get(change.category());
+                        if (bucket != null && bucket.remove(change.id())) {
+                            indexed.clear(change.id());
+                        }
+                    }
+                }
+                buckets = rebuilt;
+                pending = null;
+            }
+            loaded = true;
+            log.debug("Reconciled category question index: {} categories", rebuilt.size());
+        } catch (Exception e) {
+            synchronized (changeLock) {
+                pending = null;
+            }
+            // Keep serving the previous index; QuestionService falls back to the DB until the first load succeeds
+            log.warn("Failed to reconcile category question index", e);
+        }
+    }
+
+    private record Change(String category, int id, boolean added) {
+    }
+
+    /**
+     * Growable {@code int[]} of question ids for a single category.
+     */
+    static final class IdBucket {
+        private int[] ids = new int[16];
+        private int size;
+
+        synchronized void add(int id) {
+            if (size == ids.length) {
+                int[] grown = new int[size + (size >> 1)];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+            ids[size++] = id;
+        }
+
+        synchronized boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<Integer> sample(int count) {
+            int k = Math.min(count, size);
+            List<Integer> picked = new ArrayList<>(k);
+            // Virtual swaps: position -> value that was swapped into it
+            Map<Integer, Integer> swapped = new HashMap<>(k * 2);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < k; i++) {
+                int j = i + random.nextInt(size - i);
+                int atJ = swapped.getOrDefault(j, ids[j]);
+                int atI = swapped.getOrDefault(i, ids[i]);
+                swapped.put(j, atI);
+                picked.add(atJ);
+            }
+            return picked;
+        }
+    }
+}
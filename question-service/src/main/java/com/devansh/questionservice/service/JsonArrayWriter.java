@@ -0,0 +1,33 @@
+package com.devansh.questionservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes pre-encoded JSON values as a JSON array without re-serializing them.
+ */
+public final class JsonArrayWriter {
+
+    private JsonArrayWriter() {
+    }
+
+    public static long length(List<byte[]> fragments) {
+        long length = 2 + Math.max(0, fragments.size() - 1);
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        return length;
+    }
+
+    public static void write(List<byte[]> fragments, OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(fragments.get(i));
+        }
+        out.write(']');
+    }
+}
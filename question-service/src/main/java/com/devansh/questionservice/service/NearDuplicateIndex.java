@@ -0,0 +1,381 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionStreamDao;
+import com.devansh.questionservice.model.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory near-duplicate index over question text.
+ * <p>
+ * Each question is reduced to a 64-bit SimHash of its normalized title and options (word
+ * unigrams and bigrams; option order is ignored). Two questions in the same category are
+ * near-duplicates when their fingerprints differ in at most
+ * {@code question.dedup.max-distance} bits. Fingerprints are split into
+ * {@code max-distance + 1} bands and indexed per band, so by pigeonhole any near-duplicate
+ * shares at least one exact band; a lookup only compares the few fingerprints in those buckets.
+ * <p>
+ * The index is rebuilt from the table at startup and every
+ * {@code question.dedup.rebuild-interval-ms}; writes from this instance are applied directly,
+ * and those made while a rebuild is reading the table are replayed onto the rebuilt index
+ * before it replaces the current one.
+ */
+@Component
+public class NearDuplicateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NearDuplicateIndex.class);
+
+    private final QuestionStreamDao questionStreamDao;
+    private final boolean enabled;
+    private final int maxDistance;
+    private final int bands;
+    private final int bandBits;
+
+    private volatile Table table;
+    private volatile boolean loaded;
+
+    // Guards writes against the swap; pending is non-null only while a rebuild runs
+    private final Object changeLock = new Object();
+    private List<Change> pending;
+
+    @Autowired
+    public NearDuplicateIndex(
+            QuestionStreamDao questionStreamDao,
+            @Value("${question.dedup.enabled:true}") boolean enabled,
+            @Value("${question.dedup.max-distance:3}") int maxDistance) {
+        this.questionStreamDao = questionStreamDao;
+        this.enabled = enabled;
+        this.maxDistance = Math.max(0, Math.min(maxDistance, 15));
+        this.bands = Math.max(2, this.maxDistance + 1);
+        this.bandBits = 64 / bands;
+        this.table = new Table();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Id of an indexed question in {@code question}'s category that is a near-duplicate of it,
+     * ignoring the question's own id, or null if there is none.
+     */
+    public Integer findDuplicate(Question question) {
+        if (!enabled || question.getCategory() == null) {
+            return null;
+        }
+        return findDuplicate(question.getCategory(), fingerprint(question), question.getId());
+    }
+
+    public Integer findDuplicate(String category, long fingerprint, Integer excludeId) {
+        return enabled ? table.find(category, fingerprint, excludeId) : null;
+    }
+
+    public void add(Question question) {
+        if (!enabled || question.getId() == null || question.getCategory() == null) {
+            return;
+        }
+        int id = question.getId();
+        String category = question.getCategory();
+        long fingerprint = fingerprint(question);
+        synchronized (changeLock) {
+            if (pending != null) {
+                pending.add(new Change(id, category, fingerprint));
+            }
+            table.add(id, category, fingerprint);
+        }
+    }
+
+    /**
+     * Groups of two or more indexed questions that are near-duplicates of each other,
+     * largest first. A group is a connected component, so its ends may differ by more
+     * than the threshold.
+     */
+    public List<List<Integer>> clusters() {
+        return table.clusters();
+    }
+
+    /**
+     * Whether two fingerprints are within the configured distance.
+     */
+    public boolean isNearDuplicate(long a, long b) {
+        return Long.bitCount(a ^ b) <= maxDistance;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${question.dedup.rebuild-interval-ms:900000}",
+            fixedDelayString = "${question.dedup.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (changeLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            long startedAt = System.nanoTime();
+            Table rebuilt = new Table();
+            questionStreamDao.streamAll(question -> {
+                if (question.getCategory() != null) {
+                    rebuilt.add(question.getId(), question.getCategory(), fingerprint(question));
+                }
+            });
+            synchronized (changeLock) {
+                // Re-adding an id replaces its entry, so changes the read already saw are harmless
+                for (Change change : pending) {
+                    rebuilt.add(change.id(), change.category(), change.fingerprint());
+                }
+                table = rebuilt;
+                pending = null;
+            }
+            loaded = true;
+            log.info("Rebuilt near-duplicate index: {} questions in {} ms",
+                    rebuilt.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            synchronized (changeLock) {
+                pending = null;
+            }
+            // Keep the previous index; until the first load, inserts are not checked against existing rows
+            log.warn("Failed to rebuild near-duplicate index", e);
+        }
+    }
+
+    /**
+     * SimHash of the question's normalized title and options.
+     */
+    public static long fingerprint(Question question) {
+        String[] options = {
+                normalize(question.getOption1()), normalize(question.getOption2()),
+                normalize(question.getOption3()), normalize(question.getOption4())
+        };
+        Arrays.sort(options);
+        String text = normalize(question.getQuestionTitle()) + " " + String.join(" ", options);
+
+        int[] weights = new int[64];
+        String previous = null;
+        for (String token : text.split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            accumulate(weights, hash(token));
+            if (previous != null) {
+                accumulate(weights, hash(previous + " " + token));
+            }
+            previous = token;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private static void accumulate(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    // Lower case, punctuation to spaces, whitespace collapsed
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        return normalized.toString().trim();
+    }
+
+    // 64-bit FNV-1a, finished with the SplitMix64 mixer for avalanche
+    private static long hash(String token) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private record Entry(String category, long fingerprint) {
+    }
+
+    private record Change(int id, String category, long fingerprint) {
+    }
+
+    /**
+     * Fingerprints by id plus one bucket map per band.
+     */
+    private final class Table {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, Entry> entries = new HashMap<>();
+        private final List<Map<Long, List<Integer>>> bandBuckets = new ArrayList<>(bands);
+
+        Table() {
+            for (int b = 0; b < bands; b++) {
+                bandBuckets.add(new HashMap<>());
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(int id, String category, long fingerprint) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                entries.put(id, new Entry(category, fingerprint));
+                for (int b = 0; b < bands; b++) {
+                    bandBuckets.get(b).computeIfAbsent(bucketKey(category, fingerprint, b), k -> new ArrayList<>(2)).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(int id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (int b = 0; b < bands; b++) {
+                long key = bucketKey(entry.category(), entry.fingerprint(), b);
+                List<Integer> bucket = bandBuckets.get(b).get(key);
+                if (bucket != null) {
+                    bucket.remove(Integer.valueOf(id));
+                    if (bucket.isEmpty()) {
+                        bandBuckets.get(b).remove(key);
+                    }
+                }
+            }
+        }
+
+        Integer find(String category, long fingerprint, Integer excludeId) {
+            lock.readLock().lock();
+            try {
+                for (int b = 0; b < bands; b++) {
+                    List<Integer> bucket = bandBuckets.get(b).get(bucketKey(category, fingerprint, b));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (Integer candidate : bucket) {
+                        if (candidate.equals(excludeId)) {
+                            continue;
+                        }
+                        Entry entry = entries.get(candidate);
+                        if (entry.category().equals(category) && isNearDuplicate(entry.fingerprint(), fingerprint)) {
+                            return candidate;
+                        }
+                    }
+                }
+                return null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<List<Integer>> clusters() {
+            lock.readLock().lock();
+            try {
+                Map<Integer, Integer> parent = new HashMap<>();
+                for (Map<Long, List<Integer>> buckets : bandBuckets) {
+                    for (List<Integer> bucket : buckets.values()) {
+                        for (int i = 0; i < bucket.size(); i++) {
+                            Entry a = entries.get(bucket.get(i));
+                            for (int j = i + 1; j < bucket.size(); j++) {
+                                Entry b = entries.get(bucket.get(j));
+                                if (a.category().equals(b.category()) && isNearDuplicate(a.fingerprint(), b.fingerprint())) {
+                                    union(parent, bucket.get(i), bucket.get(j));
+                                }
+                            }
+                        }
+                    }
+                }
+                Map<Integer, List<Integer>> groups = new HashMap<>();
+                for (Integer id : parent.keySet()) {
+                    groups.computeIfAbsent(root(parent, id), r -> new ArrayList<>()).add(id);
+                }
+                List<List<Integer>> clusters = new ArrayList<>();
+                for (List<Integer> group : groups.values()) {
+                    if (group.size() > 1) {
+                        group.sort(null);
+                        clusters.add(group);
+                    }
+                }
+                clusters.sort(Comparator.<List<Integer>>comparingInt(List::size).reversed()
+                        .thenComparing(group -> group.get(0)));
+                return clusters;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private long bucketKey(String category, long fingerprint, int band) {
+            long value = (fingerprint >>> (band * bandBits)) & ((1L << bandBits) - 1);
+            return ((long) category.hashCode() << 32) ^ value;
+        }
+    }
+
+    private static void union(Map<Integer, Integer> parent, int a, int b) {
+        int rootA = root(parent, a);
+        int rootB = root(parent, b);
+        if (rootA != rootB) {
+            parent.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private static int root(Map<Integer, Integer> parent, int id) {
+        int root = id;
+        Integer next;
+        while ((next = parent.get(root)) != null && next != root) {
+            root = next;
+        }
+        parent.putIfAbsent(id, root);
+        // Path compression
+        int current = id;
+        while (current != root) {
+            int up = parent.get(current);
+            parent.put(current, root);
+            current = up;
+        }
+        return root;
+    }
+}
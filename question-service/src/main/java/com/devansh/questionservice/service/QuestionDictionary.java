@@ -0,0 +1,190 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached view of the {@code category} and {@code difficulty_level} dictionary tables.
+ * <p>
+ * Names match case-insensitively ({@code "JAVA"}, {@code "java"} and {@code "Java"} are the
+ * same category) and resolve to a canonical spelling and a small integer id. Entries are
+ * loaded on first use and on a miss, so rows created by other instances are picked up.
+ * Names that are not found are remembered for {@code question.dictionary.miss-ttl-ms}, so
+ * repeated lookups of an unknown name do not each query the table.
+ * Plain JDBC is used because lookups also run from attribute converters while Hibernate
+ * is reading a result set.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class QuestionDictionary {
+
+    /**
+     * Longest category or difficulty name the dictionary tables can hold.
+     */
+    public static final int MAX_NAME_LENGTH = 50;
+
+    private final Table categories;
+    private final Table difficulties;
+
+    @Autowired
+    public QuestionDictionary(
+            DataSource dataSource,
+            @Value("${question.dictionary.miss-ttl-ms:5000}") long missTtlMillis,
+            @Value("${question.dictionary.max-misses:10000}") long maxMisses) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        this.categories = new Table(jdbcTemplate, "category", missTtlMillis, maxMisses);
+        this.difficulties = new Table(jdbcTemplate, "difficulty_level", missTtlMillis, maxMisses);
+    }
+
+    public Short categoryId(String name) {
+        Entry entry = categories.byName(name);
+        return entry == null ? null : entry.id();
+    }
+
+    public String categoryName(Short id) {
+        Entry entry = categories.byId(id);
+        return entry == null ? null : entry.name();
+    }
+
+    /**
+     * @return the canonical spelling of a known category, or null if there is no such category
+     */
+    public String canonicalCategory(String name) {
+        Entry entry = categories.byName(name);
+        return entry == null ? null : entry.name();
+    }
+
+    public Short difficultyId(String name) {
+        Entry entry = difficulties.byName(name);
+        return entry == null ? null : entry.id();
+    }
+
+    public String difficultyName(Short id) {
+        Entry entry = difficulties.byId(id);
+        return entry == null ? null : entry.name();
+    }
+
+    /**
+     * Register the question's category and difficulty if they are new and replace
+     * both with their canonical spelling. Call before saving a question.
+     */
+    public void canonicalize(Question question) {
+        Entry category = categories.resolve(question.getCategory());
+        question.setCategory(category == null ? null : category.name());
+        Entry difficulty = difficulties.resolve(question.getDifficultylevel());
+        question.setDifficultylevel(difficulty == null ? null : difficulty.name());
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(short id, String name) {
+    }
+
+    /**
+     * One dictionary table, indexed by lower-cased name and by id.
+     */
+    private static final class Table {
+        private final JdbcTemplate jdbcTemplate;
+        private final String selectAll;
+        private final String selectByKey;
+        private final String selectById;
+        private final String insert;
+        private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+        private final Map<Short, Entry> byId = new ConcurrentHashMap<>();
+        private final Cache<String, Boolean> misses;
+        private volatile boolean loaded;
+
+        Table(JdbcTemplate jdbcTemplate, String table, long missTtlMillis, long maxMisses) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.misses = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMillis(missTtlMillis))
+                    .maximumSize(maxMisses)
+                    .build();
+            this.selectAll = "SELECT id, name FROM " + table;
+            this.selectByKey = selectAll + " WHERE lower(name) = ?";
+            this.selectById = selectAll + " WHERE id = ?";
+            // Conflicts on the unique lower(name) index mean another writer got there first
+            this.insert = "INSERT INTO " + table + " (name) VALUES (?) ON CONFLICT DO NOTHING";
+        }
+
+        Entry byName(String name) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            String key = key(name);
+            if (key.length() > MAX_NAME_LENGTH) {
+                // Too long to be stored, so not worth a query
+                return null;
+            }
+            ensureLoaded();
+            Entry entry = byKey.get(key);
+            if (entry != null || misses.getIfPresent(key) != null) {
+                return entry;
+            }
+            entry = first(query(selectByKey, key));
+            if (entry == null) {
+                misses.put(key, Boolean.TRUE);
+            }
+            return entry;
+        }
+
+        Entry byId(Short id) {
+            if (id == null) {
+                return null;
+            }
+            ensureLoaded();
+            Entry entry = byId.get(id);
+            return entry != null ? entry : first(query(selectById, id));
+        }
+
+        Entry resolve(String name) {
+            Entry entry = byName(name);
+            if (entry != null || name == null || name.isBlank()) {
+                return entry;
+            }
+            jdbcTemplate.update(insert, name.trim());
+            return first(query(selectByKey, key(name)));
+        }
+
+        private void ensureLoaded() {
+            if (!loaded) {
+                synchronized (this) {
+                    if (!loaded) {
+                        query(selectAll);
+                        loaded = true;
+                    }
+                }
+            }
+        }
+
+        private List<Entry> query(String sql, Object... args) {
+            List<Entry> entries = jdbcTemplate.query(sql,
+                    (rs, rowNum) -> new Entry(rs.getShort("id"), rs.getString("name")), args);
+            for (Entry entry : entries) {
+                byKey.put(key(entry.name()), entry);
+                byId.put(entry.id(), entry);
+                misses.invalidate(key(entry.name()));
+            }
+            return entries;
+        }
+
+        private static Entry first(List<Entry> entries) {
+            return entries.isEmpty() ? null : entries.get(0);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.model.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line loader: imports a .csv or JSON-lines file and exits.
+ * <pre>
+ * java -jar question-service.jar --spring.main.web-application-type=none --question.import.file=bank.jsonl
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty("question.import.file")
+public class QuestionImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionImportRunner.class);
+
+    @Autowired
+    QuestionImportService questionImportService;
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Value("${question.import.file}")
+    private Path file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(file)) {
+            report = file.getFileName().toString().toLowerCase().endsWith(".csv")
+                    ? questionImportService.importCsv(in)
+                    : questionImportService.importNdjson(in);
+        }
+        report.getErrors().forEach(error -> log.warn("Row {}: {}", error.getRow(), error.getMessage()));
+        log.info("Imported {} from {} ({} rejected, {} ms)",
+                report.getAccepted(), file, report.getRejected(), report.getElapsedMillis());
+
+        int exitCode = report.getRejected() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,300 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionBatchDao;
+import com.devansh.questionservice.model.ImportReport;
+import com.devansh.questionservice.model.Question;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk import of questions from JSON lines, CSV or an in-memory list.
+ * <p>
+ * Rows are validated as they are read and written in JDBC batches of
+ * {@code question.import.chunk-size}. A failing batch is retried row by row so a
+ * single bad row is reported instead of aborting the load.
+ */
+@Service
+public class QuestionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionImportService.class);
+
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final String[] CSV_COLUMNS = {
+            "questionTitle", "option1", "option2", "option3", "option4", "rightAnswer", "difficultylevel", "category"
+    };
+
+    @Autowired
+    QuestionBatchDao questionBatchDao;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    QuestionDictionary dictionary;
+
+    @Autowired
+    CategoryQuestionIndex categoryIndex;
+
+    @Autowired
+    AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    NearDuplicateIndex duplicateIndex;
+
+    @Value("${question.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${question.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${question.import.max-returned-ids:10000}")
+    private int maxReturnedIds;
+
+    public ImportReport importNdjson(InputStream in) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(Question.class);
+        ImportSession session = new ImportSession();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long row = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                session.offer(row, reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                session.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    public ImportReport importCsv(InputStream in) throws IOException {
+        ImportSession session = new ImportSession();
+        CsvRecordReader csv = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        List<String> header = csv.next();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                session.reject(0, "Missing CSV column: " + column);
+                return session.finish();
+            }
+        }
+
+        long row = 0;
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            Question question = new Question();
+            question.setQuestionTitle(field(record, columns, "questionTitle"));
+            question.setOption1(field(record, columns, "option1"));
+            question.setOption2(field(record, columns, "option2"));
+            question.setOption3(field(record, columns, "option3"));
+            question.setOption4(field(record, columns, "option4"));
+            question.setRightAnswer(field(record, columns, "rightAnswer"));
+            question.setDifficultylevel(field(record, columns, "difficultylevel"));
+            question.setCategory(field(record, columns, "category"));
+            session.offer(row, question);
+        }
+        return session.finish();
+    }
+
+    public ImportReport importQuestions(List<Question> questions) {
+        ImportSession session = new ImportSession();
+        long row = 0;
+        for (Question question : questions) {
+            session.offer(++row, question);
+        }
+        return session.finish();
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < record.size() ? record.get(index) : null;
+    }
+
+    /**
+     * @return a reason the question cannot be stored, or null if it is valid
+     */
+    private static String validate(Question question) {
+        if (question == null) {
+            return "Empty row";
+        }
+        String[] required = {
+                question.getQuestionTitle(), question.getOption1(), question.getOption2(), question.getOption3(),
+                question.getOption4(), question.getRightAnswer(), question.getDifficultylevel(), question.getCategory()
+        };
+        for (int i = 0; i < required.length; i++) {
+            if (required[i] == null || required[i].isBlank()) {
+                return CSV_COLUMNS[i] + " is required";
+            }
+            // Category and difficulty are stored trimmed in the dictionary tables, which hold shorter names
+            boolean name = i >= 6;
+            int maxLength = name ? QuestionDictionary.MAX_NAME_LENGTH : MAX_FIELD_LENGTH;
+            if ((name ? required[i].trim() : required[i]).length() > maxLength) {
+                return CSV_COLUMNS[i] + " is longer than " + maxLength + " characters";
+            }
+        }
+        String answer = question.getRightAnswer();
+        if (!answer.equals(question.getOption1()) && !answer.equals(question.getOption2())
+                && !answer.equals(question.getOption3()) && !answer.equals(question.getOption4())) {
+            return "rightAnswer must match one of the options";
+        }
+        return null;
+    }
+
+    private record PendingDuplicate(ImportReport.RowError error, Question original) {
+    }
+
+    /**
+     * Accumulates valid rows into chunks and collects the report for one import.
+     */
+    private final class ImportSession {
+        private final ImportReport report = new ImportReport();
+        private final List<Question> pending = new ArrayList<>();
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<Long> pendingFingerprints = new ArrayList<>();
+        private final List<PendingDuplicate> duplicatesOfPending = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+
+        void offer(long row, Question question) {
+            String error = validate(question);
+            if (error != null) {
+                reject(row, error);
+                return;
+            }
+            question.setId(null);
+            try {
+                dictionary.canonicalize(question);
+            } catch (DataAccessException e) {
+                reject(row, "Could not register category or difficulty: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            long fingerprint = NearDuplicateIndex.fingerprint(question);
+            if (rejectDuplicate(row, question, fingerprint)) {
+                return;
+            }
+            pending.add(question);
+            pendingRows.add(row);
+            pendingFingerprints.add(fingerprint);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        // Existing questions are in the index; rows of this chunk are not stored yet
+        private boolean rejectDuplicate(long row, Question question, long fingerprint) {
+            Integer existing = duplicateIndex.findDuplicate(question.getCategory(), fingerprint, null);
+            if (existing != null) {
+                reject(row, "Near-duplicate of question " + existing, existing);
+                return true;
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                if (pending.get(i).getCategory().equals(question.getCategory())
+                        && duplicateIndex.isNearDuplicate(pendingFingerprints.get(i), fingerprint)) {
+                    ImportReport.RowError error = reject(row, "Near-duplicate of row " + pendingRows.get(i), null);
+                    if (error != null) {
+                        // The earlier row gets its id when the chunk is flushed
+                        duplicatesOfPending.add(new PendingDuplicate(error, pending.get(i)));
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void reject(long row, String message) {
+            reject(row, message, null);
+        }
+
+        private ImportReport.RowError reject(long row, String message, Integer duplicateOf) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() >= maxReportedErrors) {
+                return null;
+            }
+            ImportReport.RowError error = new ImportReport.RowError(row, message, duplicateOf);
+            report.getErrors().add(error);
+            return error;
+        }
+
+        ImportReport finish() {
+            flush();
+            report.setElapsedMillis((System.nanoTime() - startedAt) / 1_000_000);
+            log.info("Question import finished: {} accepted, {} rejected in {} ms",
+                    report.getAccepted(), report.getRejected(), report.getElapsedMillis());
+            return report;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                accept(pending, questionBatchDao.insertBatch(pending));
+            } catch (DataAccessException batchFailure) {
+                // Isolate the offending rows; the rest of the chunk is still stored
+                for (int i = 0; i < pending.size(); i++) {
+                    Question question = pending.get(i);
+                    try {
+                        accept(List.of(question), questionBatchDao.insertBatch(List.of(question)));
+                    } catch (DataAccessException rowFailure) {
+                        reject(pendingRows.get(i), "Insert failed: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                    }
+                }
+            }
+            for (PendingDuplicate duplicate : duplicatesOfPending) {
+                duplicate.error().setDuplicateOf(duplicate.original().getId());
+            }
+            pending.clear();
+            pendingRows.clear();
+            pendingFingerprints.clear();
+            duplicatesOfPending.clear();
+        }
+
+        private void accept(List<Question> questions, List<Integer> ids) {
+            for (int i = 0; i < ids.size(); i++) {
+                Question question = questions.get(i);
+                int id = ids.get(i);
+                question.setId(id);
+                categoryIndex.add(question.getCategory(), id);
+                duplicateIndex.add(question);
+                answerKeyCache.put(id, question.getRightAnswer());
+                if (report.getInsertedIds().size() < maxReturnedIds) {
+                    report.getInsertedIds().add(id);
+                }
+            }
+            report.setAccepted(report.getAccepted() + ids.size());
+        }
+    }
+}
@@ -2,27 +2,82 @@ package com.devansh.questionservice.service;
 
 
 import com.devansh.questionservice.dao.QuestionDao;
+import com.devansh.questionservice.dao.QuestionStreamDao;
 import com.devansh.questionservice.model.Question;
+import com.devansh.questionservice.model.QuestionPage;
 import com.devansh.questionservice.model.QuestionWrapper;
 import com.devansh.questionservice.model.Response;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionService.class);
+
+    public static final String MISSING_IDS_HEADER = "X-Missing-Question-Ids";
+
     @Autowired
     QuestionDao questionDao;
 
+    @Autowired
+    QuestionStreamDao questionStreamDao;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    QuestionDictionary dictionary;
+
+    @Autowired
+    CategoryQuestionIndex categoryIndex;
+
+    @Autowired
+    AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    QuestionWrapperCache wrapperCache;
+
+    @Autowired
+    NearDuplicateIndex duplicateIndex;
+
+    @Value("${question.fetch.batch-size:500}")
+    private int fetchBatchSize;
+
+    @Value("${question.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${question.page.max-size:500}")
+    private int maxPageSize;
+
     public ResponseEntity<List<Question>> getAllQuestions() {
         try {
             return new ResponseEntity<>(questionDao.findAll(), HttpStatus.OK);
         }catch (Exception e){
-            e.printStackTrace();
+            log.error("Failed to load all questions", e);
         }
         return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
     }
@@ -31,55 +86,228 @@ public class QuestionService {
         try {
             return new ResponseEntity<>(questionDao.findByCategory(category),HttpStatus.OK);
         }catch (Exception e){
-            e.printStackTrace();
+            log.error("Failed to load questions for category {}", category, e);
         }
         return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
 
     }
 
+    public ResponseEntity<QuestionPage> getQuestionsPage(Integer after, Integer size) {
+        int pageSize = pageSize(size);
+        List<Question> rows = questionDao.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0 : after, PageRequest.of(0, pageSize + 1));
+        return new ResponseEntity<>(toPage(rows, pageSize), HttpStatus.OK);
+    }
+
+    public ResponseEntity<QuestionPage> getQuestionsByCategoryPage(String category, Integer after, Integer size) {
+        int pageSize = pageSize(size);
+        List<Question> rows = questionDao.findByCategoryAndIdGreaterThanOrderByIdAsc(
+                category, after == null ? 0 : after, PageRequest.of(0, pageSize + 1));
+        return new ResponseEntity<>(toPage(rows, pageSize), HttpStatus.OK);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions() {
+        return ndjson(questionStreamDao::streamAll);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByCategory(String category) {
+        Short categoryId = dictionary.categoryId(category);
+        return ndjson(consumer -> {
+            if (categoryId != null) {
+                questionStreamDao.streamByCategory(categoryId, consumer);
+            }
+        });
+    }
+
     public ResponseEntity<String> addQuestion(Question question) {
-        questionDao.save(question);
+        String invalid = invalidNames(question);
+        if (invalid != null) {
+            return new ResponseEntity<>(invalid, HttpStatus.BAD_REQUEST);
+        }
+        boolean isEdit = question.getId() != null;
+        dictionary.canonicalize(question);
+        Integer duplicate = duplicateIndex.findDuplicate(question);
+        if (duplicate != null) {
+            return new ResponseEntity<>("Near-duplicate of question " + duplicate, HttpStatus.CONFLICT);
+        }
+        String previousCategory = isEdit
+                ? questionDao.findById(question.getId()).map(Question::getCategory).orElse(null)
+                : null;
+        Question saved = questionDao.save(question);
+        if (previousCategory != null) {
+            categoryIndex.remove(previousCategory, saved.getId());
+        }
+        categoryIndex.add(saved.getCategory(), saved.getId());
+        duplicateIndex.add(saved);
+        answerKeyCache.put(saved.getId(), saved.getRightAnswer());
+        wrapperCache.invalidate(saved.getId());
         return new ResponseEntity<>("success",HttpStatus.CREATED);
     }
 
     public ResponseEntity<List<Integer>> getQuestionsForQuiz(String categoryName, Integer numQuestions) {
-        List<Integer> questions = questionDao.findRandomQuestionsByCategory(categoryName, numQuestions);
+        String category = dictionary.canonicalCategory(categoryName);
+        if (category == null) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+        }
+        List<Integer> questions = categoryIndex.isLoaded()
+                ? categoryIndex.sample(category, numQuestions)
+                : questionDao.findRandomQuestionsByCategoryId(dictionary.categoryId(category), numQuestions);
         return new ResponseEntity<>(questions, HttpStatus.OK);
     }
 
-    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
-        List<QuestionWrapper> wrappers = new ArrayList<>();
-        List<Question> questions = new ArrayList<>();
+    /**
+     * Write the questions as a JSON array straight to the response, in the caller's order,
+     * from their cached pre-encoded JSON. Duplicates are served twice; unknown ids are
+     * skipped and listed in {@link #MISSING_IDS_HEADER}.
+     */
+    public void writeQuestionsFromId(List<Integer> questionIds, HttpServletResponse response) throws IOException {
+        EncodedQuestions questions = getEncodedQuestions(questionIds);
+        if (!questions.missing().isEmpty()) {
+            response.setHeader(MISSING_IDS_HEADER, questions.missing().stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(JsonArrayWriter.length(questions.fragments()));
+        JsonArrayWriter.write(questions.fragments(), response.getOutputStream());
+    }
+
+    public EncodedQuestions getEncodedQuestions(List<Integer> questionIds) {
+        Map<Integer, byte[]> byId = wrapperCache.getAll(distinctIds(questionIds), this::loadEncodedWrappers);
 
-        for(Integer id : questionIds){
-            questions.add(questionDao.findById(id).get());
+        List<byte[]> fragments = new ArrayList<>(questionIds.size());
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (Integer id : questionIds) {
+            byte[] json = byId.get(id);
+            if (json != null) {
+                fragments.add(json);
+            } else {
+                missing.add(id);
+            }
         }
+        return new EncodedQuestions(fragments, missing);
+    }
 
-        for(Question question : questions){
-            QuestionWrapper wrapper = new QuestionWrapper();
-            wrapper.setId(question.getId());
-            wrapper.setQuestionTitle(question.getQuestionTitle());
-            wrapper.setOption1(question.getOption1());
-            wrapper.setOption2(question.getOption2());
-            wrapper.setOption3(question.getOption3());
-            wrapper.setOption4(question.getOption4());
-            wrappers.add(wrapper);
+    /**
+     * JSON-encoded {@link QuestionWrapper}s in request order, plus the ids that were not found.
+     */
+    public record EncodedQuestions(List<byte[]> fragments, Set<Integer> missing) {
+    }
+
+    public ResponseEntity<List<List<Integer>>> getDuplicateClusters() {
+        if (!duplicateIndex.isLoaded()) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.SERVICE_UNAVAILABLE);
         }
+        return new ResponseEntity<>(duplicateIndex.clusters(), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(wrappers, HttpStatus.OK);
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return new ResponseEntity<>(wrapperCache.stats(), HttpStatus.OK);
     }
 
     public ResponseEntity<Integer> getScore(List<Response> responses) {
+        return new ResponseEntity<>(answerKeyCache.score(responses), HttpStatus.OK);
+    }
 
+    public ResponseEntity<List<Integer>> getScores(List<List<Response>> submissions) {
+        return new ResponseEntity<>(answerKeyCache.scoreAll(submissions), HttpStatus.OK);
+    }
 
-        int right = 0;
+    private Map<Integer, byte[]> loadEncodedWrappers(Set<? extends Integer> ids) {
+        Map<Integer, byte[]> byId = new HashMap<>();
+        for (List<Integer> chunk : chunks(new ArrayList<>(ids), fetchBatchSize)) {
+            for (QuestionWrapper wrapper : questionDao.findWrappersByIdIn(chunk)) {
+                try {
+                    byId.put(wrapper.getId(), objectMapper.writeValueAsBytes(wrapper));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return byId;
+    }
 
-        for(Response response : responses){
-            Question question = questionDao.findById(response.getId()).get();
-            if(response.getResponse().equals(question.getRightAnswer()))
-                right++;
+    /**
+     * Category and difficulty are stored as dictionary rows, which hold trimmed names of at most
+     * {@link QuestionDictionary#MAX_NAME_LENGTH} characters.
+     *
+     * @return why the names cannot be stored, or null if they can
+     */
+    private static String invalidNames(Question question) {
+        if (question.getCategory() == null || question.getCategory().isBlank()) {
+            return "category is required";
+        }
+        if (question.getCategory().trim().length() > QuestionDictionary.MAX_NAME_LENGTH) {
+            return "category is longer than " + QuestionDictionary.MAX_NAME_LENGTH + " characters";
         }
-        return new ResponseEntity<>(right, HttpStatus.OK);
+        if (question.getDifficultylevel() != null
+                && question.getDifficultylevel().trim().length() > QuestionDictionary.MAX_NAME_LENGTH) {
+            return "difficultylevel is longer than " + QuestionDictionary.MAX_NAME_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private int pageSize(Integer requested) {
+        int size = requested == null ? defaultPageSize : requested;
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    /**
+     * Rows were fetched with one extra element; its presence means another page follows.
+     */
+    private static QuestionPage toPage(List<Question> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new QuestionPage(rows, null);
+        }
+        List<Question> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new QuestionPage(page, page.get(pageSize - 1).getId());
     }
-}
 
+    /**
+     * Write each question as one JSON line as soon as the cursor yields it.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Question>> source) {
+        StreamingResponseBody body = out -> {
+            // Closing the generator releases its buffers; the servlet stream is left to the container
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                source.accept(question -> {
+                    try {
+                        generator.writeObject(question);
+                        generator.writeRaw('\n');
+                        // Flush the first row immediately, then in blocks
+                        if (written[0]++ % 256 == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    static List<Integer> distinctIds(List<Integer> ids) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Split ids into bounded chunks so a single IN list never exceeds the driver's bind limit.
+     */
+    static List<List<Integer>> chunks(List<Integer> ids, int size) {
+        int chunkSize = Math.max(1, size);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,82 @@
+package com.devansh.questionservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of rendered questions keyed by question id, bounded by approximate
+ * heap weight and evicted with Caffeine's W-TinyLFU policy. Question content rarely changes,
+ * so quiz rendering is served from memory after the first read of each question.
+ * <p>
+ * Each entry is the question's {@code QuestionWrapper} already encoded as UTF-8 JSON, so a
+ * response is assembled by copying bytes instead of building and serializing objects.
+ * Disable with {@code question.cache.enabled=false}. Hit, miss and eviction counts are
+ * published as {@code cache.*} meters tagged {@code cache=question.wrapper}.
+ */
+@Component
+public class QuestionWrapperCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<Integer, byte[]> cache;
+
+    @Autowired
+    public QuestionWrapperCache(
+            @Value("${question.cache.enabled:true}") boolean enabled,
+            @Value("${question.cache.max-weight-bytes:67108864}") long maxWeightBytes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Integer id, byte[] json) -> 16 + json.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Look up all ids, loading the misses with a single call to {@code loader}.
+     * Ids the loader does not return are absent from the result and are not cached.
+     */
+    public Map<Integer, byte[]> getAll(
+            Collection<Integer> ids,
+            Function<Set<? extends Integer>, Map<Integer, byte[]>> loader) {
+        if (!enabled) {
+            return loader.apply(new LinkedHashSet<>(ids));
+        }
+        return cache.getAll(ids, loader);
+    }
+
+    public void invalidate(Integer id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "question.wrapper");
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("size", cache.estimatedSize());
+        snapshot.put("hitCount", stats.hitCount());
+        snapshot.put("missCount", stats.missCount());
+        snapshot.put("hitRate", stats.hitRate());
+        snapshot.put("evictionCount", stats.evictionCount());
+        snapshot.put("evictionWeight", stats.evictionWeight());
+        return snapshot;
+    }
+}
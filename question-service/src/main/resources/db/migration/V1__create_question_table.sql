@@ -0,0 +1,12 @@
+-- Schema previously created by hibernate.ddl-auto=update; a no-op on existing databases
+CREATE TABLE IF NOT EXISTS question (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    question_title VARCHAR(255),
+    option1 VARCHAR(255),
+    option2 VARCHAR(255),
+    option3 VARCHAR(255),
+    option4 VARCHAR(255),
+    right_answer VARCHAR(255),
+    difficultylevel VARCHAR(255),
+    category VARCHAR(255)
+);
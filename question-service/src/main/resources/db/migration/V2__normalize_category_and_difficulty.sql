@@ -0,0 +1,44 @@
+-- Dictionary tables; names are unique case-insensitively
+CREATE TABLE category (
+    id SMALLSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL
+);
+CREATE UNIQUE INDEX ux_category_name ON category (lower(name));
+
+CREATE TABLE difficulty_level (
+    id SMALLSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL
+);
+CREATE UNIQUE INDEX ux_difficulty_level_name ON difficulty_level (lower(name));
+
+-- The most common spelling becomes canonical, e.g. 'Java' over 'JAVA'
+INSERT INTO category (name)
+SELECT mode() WITHIN GROUP (ORDER BY trim(category))
+FROM question
+WHERE trim(category) <> ''
+GROUP BY lower(trim(category));
+
+INSERT INTO difficulty_level (name)
+SELECT mode() WITHIN GROUP (ORDER BY trim(difficultylevel))
+FROM question
+WHERE trim(difficultylevel) <> ''
+GROUP BY lower(trim(difficultylevel));
+
+ALTER TABLE question ADD COLUMN category_id SMALLINT REFERENCES category (id);
+ALTER TABLE question ADD COLUMN difficulty_id SMALLINT REFERENCES difficulty_level (id);
+
+UPDATE question q
+SET category_id = c.id
+FROM category c
+WHERE lower(trim(q.category)) = lower(c.name);
+
+UPDATE question q
+SET difficulty_id = d.id
+FROM difficulty_level d
+WHERE lower(trim(q.difficultylevel)) = lower(d.name);
+
+ALTER TABLE question DROP COLUMN category;
+ALTER TABLE question DROP COLUMN difficultylevel;
+
+-- Serves category-only lookups too (leading column)
+CREATE INDEX ix_question_category_difficulty ON question (category_id, difficulty_id);
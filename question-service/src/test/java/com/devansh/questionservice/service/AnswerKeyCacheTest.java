@@ -0,0 +1,75 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionDao;
+import com.devansh.questionservice.model.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerKeyCacheTest {
+
+	// Question n has right answer "answer n"
+	private static QuestionDao questionDao() {
+		QuestionDao questionDao = mock(QuestionDao.class);
+		when(questionDao.findAnswerKeysByIdIn(any())).thenAnswer(invocation -> {
+			List<Object[]> rows = new ArrayList<>();
+			for (Integer id : invocation.<Collection<Integer>>getArgument(0)) {
+				rows.add(new Object[]{id, "answer " + id});
+			}
+			return rows;
+		});
+		return questionDao;
+	}
+
+	private static Response response(int id, String answer) {
+		Response response = new Response();
+		response.setId(id);
+		response.setResponse(answer);
+		return response;
+	}
+
+	@Test
+	void gradesMissesFromLoadedRowsWhenTheyDoNotFit() {
+		AnswerKeyCache cache = new AnswerKeyCache(questionDao(), 2, 60_000, 500);
+		List<Response> responses = new ArrayList<>();
+		for (int id = 1; id <= 5; id++) {
+			responses.add(response(id, "answer " + id));
+		}
+		responses.add(response(6, "wrong"));
+
+		assertEquals(5, cache.score(responses));
+		assertEquals(5, cache.score(responses));
+	}
+
+	@Test
+	void warmKeysAreNotReloaded() {
+		QuestionDao questionDao = questionDao();
+		AnswerKeyCache cache = new AnswerKeyCache(questionDao, 100, 60_000, 500);
+		List<List<Response>> submissions = List.of(
+				List.of(response(1, "answer 1"), response(2, "nope")),
+				List.of(response(2, "answer 2"), response(3, "answer 3")));
+
+		assertEquals(List.of(1, 2), cache.scoreAll(submissions));
+		assertEquals(List.of(1, 2), cache.scoreAll(submissions));
+		verify(questionDao, times(1)).findAnswerKeysByIdIn(any());
+	}
+
+	@Test
+	void putReplacesTheCachedAnswer() {
+		AnswerKeyCache cache = new AnswerKeyCache(questionDao(), 100, 60_000, 500);
+		assertEquals(1, cache.score(List.of(response(1, "answer 1"))));
+
+		cache.put(1, "edited");
+		assertEquals(0, cache.score(List.of(response(1, "answer 1"))));
+		assertEquals(1, cache.score(List.of(response(1, "edited"))));
+	}
+}
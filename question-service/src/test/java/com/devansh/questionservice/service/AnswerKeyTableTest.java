@@ -0,0 +1,115 @@
+package com.devansh.questionservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerKeyTableTest {
+
+	// Ids whose home slot in the initial 1024-slot table is homeSlot
+	private static List<Integer> collidingIds(int homeSlot, int count) {
+		List<Integer> ids = new ArrayList<>();
+		for (int id = 1; ids.size() < count; id++) {
+			if ((AnswerKeyTable.mix(id) & 1023) == homeSlot) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	@Test
+	void collidingKeysAreAllFound() {
+		AnswerKeyTable table = new AnswerKeyTable(100);
+		List<Integer> ids = collidingIds(1022, 6);
+		for (int id : ids) {
+			table.put(id, "answer" + id, 0);
+		}
+		for (int id : ids) {
+			assertEquals("answer" + id, table.get(id, 0));
+		}
+		assertEquals(6, table.size());
+	}
+
+	@Test
+	void deletionKeepsProbeChainsIntact() {
+		AnswerKeyTable table = new AnswerKeyTable(100);
+		// Chain wraps past the end of the array
+		List<Integer> ids = collidingIds(1022, 6);
+		for (int id : ids) {
+			table.put(id, "answer" + id, 0);
+		}
+
+		assertTrue(table.remove(ids.get(1)));
+		assertFalse(table.remove(ids.get(1)));
+		assertNull(table.get(ids.get(1), 0));
+		for (int id : List.of(ids.get(0), ids.get(2), ids.get(3), ids.get(4), ids.get(5))) {
+			assertEquals("answer" + id, table.get(id, 0));
+		}
+		assertEquals(5, table.size());
+	}
+
+	@Test
+	void matchesHashMapUnderRandomPutsAndRemoves() {
+		AnswerKeyTable table = new AnswerKeyTable(1_000_000);
+		Map<Integer, String> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 50_000; i++) {
+			int id = 1 + random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(id) != null, table.remove(id));
+			} else {
+				table.put(id, "a" + i, 0);
+				expected.put(id, "a" + i);
+			}
+		}
+		assertEquals(expected.size(), table.size());
+		for (int id = 1; id <= 5_000; id++) {
+			assertEquals(expected.get(id), table.get(id, 0));
+		}
+	}
+
+	@Test
+	void evictsInsteadOfGrowingPastMaxEntries() {
+		AnswerKeyTable table = new AnswerKeyTable(100);
+		for (int id = 1; id <= 1_000; id++) {
+			table.put(id, "answer" + id, 0);
+		}
+		assertEquals(100, table.size());
+		assertEquals("answer1000", table.get(1000, 0));
+	}
+
+	@Test
+	void recentlyReadEntriesSurviveEviction() {
+		AnswerKeyTable table = new AnswerKeyTable(10);
+		for (int id = 1; id <= 10; id++) {
+			table.put(id, "answer" + id, 0);
+		}
+		table.get(3, 0);
+		for (int id = 11; id <= 15; id++) {
+			table.put(id, "answer" + id, 0);
+		}
+		assertEquals(10, table.size());
+		assertEquals("answer3", table.get(3, 0));
+	}
+
+	@Test
+	void staleEntriesAreMisses() {
+		AnswerKeyTable table = new AnswerKeyTable(10);
+		table.put(7, "A", 1_000);
+		assertEquals("A", table.get(7, 1_000));
+		assertNull(table.get(7, 1_001));
+
+		table.put(7, "B", 2_000);
+		assertEquals("B", table.get(7, 1_001));
+		assertEquals(1, table.size());
+	}
+}
@@ -0,0 +1,169 @@
+package com.devansh.questionservice.service;
+
+import com.devansh.questionservice.dao.QuestionStreamDao;
+import com.devansh.questionservice.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class NearDuplicateIndexTest {
+
+	private static Question question(Integer id, String category, String title, String... options) {
+		Question question = new Question();
+		question.setId(id);
+		question.setCategory(category);
+		question.setQuestionTitle(title);
+		question.setOption1(options[0]);
+		question.setOption2(options[1]);
+		question.setOption3(options[2]);
+		question.setOption4(options[3]);
+		return question;
+	}
+
+	// A DAO whose table holds rows and runs duringRead once the rows have been streamed
+	private static QuestionStreamDao dao(List<Question> rows, Runnable duringRead) {
+		QuestionStreamDao questionStreamDao = mock(QuestionStreamDao.class);
+		doAnswer(invocation -> {
+			Consumer<Question> consumer = invocation.getArgument(0);
+			rows.forEach(consumer);
+			duringRead.run();
+			return null;
+		}).when(questionStreamDao).streamAll(any());
+		return questionStreamDao;
+	}
+
+	private static NearDuplicateIndex index(List<Question> rows, int maxDistance) {
+		NearDuplicateIndex index = new NearDuplicateIndex(dao(rows, () -> {
+		}), true, maxDistance);
+		index.rebuild();
+		return index;
+	}
+
+	private static long flipBits(long fingerprint, int count, Random random) {
+		long flipped = fingerprint;
+		while (Long.bitCount(flipped ^ fingerprint) < count) {
+			flipped ^= 1L << random.nextInt(64);
+		}
+		return flipped;
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			text.append(Long.toString(random.nextLong() >>> 1, 36)).append(' ');
+		}
+		return text.toString().trim();
+	}
+
+	@Test
+	void fingerprintIsDeterministic() {
+		Question a = question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var");
+		Question b = question(2, "Java", "Which keyword declares a constant?", "final", "static", "const", "var");
+		assertEquals(NearDuplicateIndex.fingerprint(a), NearDuplicateIndex.fingerprint(a));
+		assertEquals(NearDuplicateIndex.fingerprint(a), NearDuplicateIndex.fingerprint(b));
+	}
+
+	@Test
+	void fingerprintIgnoresOptionOrderCaseAndPunctuation() {
+		long original = NearDuplicateIndex.fingerprint(
+				question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var"));
+		long reworded = NearDuplicateIndex.fingerprint(
+				question(2, "Java", "  which KEYWORD declares a constant ", "VAR", "const.", "Final", "static!"));
+		assertEquals(original, reworded);
+	}
+
+	@Test
+	void fingerprintChangesWithTheText() {
+		long a = NearDuplicateIndex.fingerprint(
+				question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var"));
+		long b = NearDuplicateIndex.fingerprint(
+				question(2, "Java", "What is the default value of an int field?", "0", "null", "1", "undefined"));
+		assertNotEquals(a, b);
+	}
+
+	@Test
+	void bandsFindEveryFingerprintWithinMaxDistance() {
+		Random random = new Random(7);
+		List<Question> rows = new ArrayList<>();
+		// Unrelated text, so every row is far from every other one
+		for (int id = 1; id <= 200; id++) {
+			rows.add(question(id, "General", words(random, 8), words(random, 2), words(random, 2),
+					words(random, 2), words(random, 2)));
+		}
+
+		// 2 bands leave no bits out; 3 bands of 21 bits leave the top bit out of every band
+		for (int maxDistance : new int[]{0, 2, 3, 7}) {
+			NearDuplicateIndex index = index(rows, maxDistance);
+			for (Question row : rows) {
+				long fingerprint = NearDuplicateIndex.fingerprint(row);
+				for (int trial = 0; trial < 20; trial++) {
+					long near = flipBits(fingerprint, maxDistance, random);
+					assertEquals(row.getId(), index.findDuplicate("General", near, null),
+							"max-distance " + maxDistance);
+
+					long far = flipBits(fingerprint, maxDistance + 1, random);
+					Integer found = index.findDuplicate("General", far, null);
+					if (found != null) {
+						// Only another row that happens to be close enough may match
+						long other = NearDuplicateIndex.fingerprint(rows.get(found - 1));
+						assertTrue(index.isNearDuplicate(other, far));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void lookupsStayWithinTheCategoryAndSkipTheQuestionItself() {
+		Question original = question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var");
+		NearDuplicateIndex index = index(List.of(original), 3);
+
+		assertEquals(1, index.findDuplicate(question(null, "Java", "which keyword declares a constant",
+				"var", "const", "static", "final")));
+		assertNull(index.findDuplicate(question(null, "Kotlin", "Which keyword declares a constant?",
+				"final", "static", "const", "var")));
+		assertNull(index.findDuplicate(original));
+	}
+
+	@Test
+	void clustersGroupNearDuplicatesPerCategory() {
+		List<Question> rows = List.of(
+				question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var"),
+				question(2, "Java", "What is the default value of an int field?", "0", "null", "1", "undefined"),
+				question(3, "Java", "which keyword declares a constant", "var", "const", "static", "final"),
+				question(4, "Kotlin", "Which keyword declares a constant?", "final", "static", "const", "var"),
+				question(5, "Java", "WHICH keyword declares a constant!", "static", "final", "var", "const"),
+				question(6, "Java", "What is the default value of an int field", "undefined", "1", "null", "0"),
+				question(7, "Java", "Which collection keeps insertion order?", "HashSet", "LinkedHashSet",
+						"TreeSet", "EnumSet"));
+
+		assertEquals(List.of(List.of(1, 3, 5), List.of(2, 6)), index(rows, 3).clusters());
+	}
+
+	@Test
+	void addsDuringARebuildSurviveTheSwap() {
+		Question existing = question(1, "Java", "Which keyword declares a constant?", "final", "static", "const", "var");
+		Question added = question(2, "Java", "What is the default value of an int field?", "0", "null", "1", "undefined");
+		NearDuplicateIndex[] index = new NearDuplicateIndex[1];
+		// The rebuild's read misses the row written while it runs
+		index[0] = new NearDuplicateIndex(dao(List.of(existing), () -> index[0].add(added)), true, 3);
+
+		index[0].rebuild();
+
+		assertEquals(1, index[0].findDuplicate(question(null, "Java", "Which keyword declares a constant?",
+				"final", "static", "const", "var")));
+		assertEquals(2, index[0].findDuplicate(question(null, "Java", "What is the default value of an int field?",
+				"0", "null", "1", "undefined")));
+	}
+}
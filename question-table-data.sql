@@ -1,18 +1,13 @@
--- Create table for Question model
-CREATE TABLE question (
-    id SERIAL PRIMARY KEY,
-    question_title VARCHAR(255),
-    option1 VARCHAR(255),
-    option2 VARCHAR(255),
-    option3 VARCHAR(255),
-    option4 VARCHAR(255),
-    right_answer VARCHAR(255),
-    difficultylevel VARCHAR(50),
-    category VARCHAR(50)
-);
+-- Sample questions for question-service.
+-- The schema is created by question-service's Flyway migrations; start the service once before running this.
+-- Category and difficulty names are matched case-insensitively against the dictionary tables.
 
--- Insert sample data
-INSERT INTO question (id, category, difficultylevel, option1, option2, option3, option4, question_title, right_answer) VALUES
+INSERT INTO category (name) VALUES ('Java'), ('Python') ON CONFLICT DO NOTHING;
+INSERT INTO difficulty_level (name) VALUES ('Easy') ON CONFLICT DO NOTHING;
+
+INSERT INTO question (id, category_id, difficulty_id, option1, option2, option3, option4, question_title, right_answer)
+SELECT v.id, c.id, d.id, v.option1, v.option2, v.option3, v.option4, v.question_title, v.right_answer
+FROM (VALUES
 (1, 'JAVA', 'Easy', 'class', 'interface', 'extends', 'implements', 'Which Java keyword is used to create a subclass?', 'extends'),
 (2, 'Java', 'Easy', '4', '5', '6', 'Compile error', 'What is the output of the following Java code snippet?', '5'),
 (3, 'Java', 'Easy', 'true', 'false', '0', 'null', 'In Java, what is the default value of an uninitialized boolean variable?', 'false'),
@@ -28,4 +23,9 @@ INSERT INTO question (id, category, difficultylevel, option1, option2, option3,
 (13, 'Python', 'Easy', 'break', 'continue', 'pass', 'return', 'Which Python statement is used to exit from a loop prematurely?', 'break'),
 (14, 'Python', 'Easy', 'To generate a random number within a given range.', 'To iterate over a sequence of numbers.', 'To sort a list in ascending order.', 'To calculate the length of a string.', 'What is the purpose of the "range()" function in Python?', 'To iterate over a sequence of numbers.'),
 (15, 'Python', 'Easy', 'int', 'float', 'str', 'list', 'In Python, which data type is mutable?', 'list'),
-(16, 'Python', 'Easy', 'datetime', 'math', 'os', 'sys', 'Which Python module is used for working with dates and times?', 'datetime');
+(16, 'Python', 'Easy', 'datetime', 'math', 'os', 'sys', 'Which Python module is used for working with dates and times?', 'datetime')
+) AS v (id, category, difficultylevel, option1, option2, option3, option4, question_title, right_answer)
+JOIN category c ON lower(c.name) = lower(v.category)
+JOIN difficulty_level d ON lower(d.name) = lower(v.difficultylevel);
+
+SELECT setval(pg_get_serial_sequence('question', 'id'), (SELECT max(id) FROM question));
@@ -0,0 +1,16 @@
+package com.devansh.quizservice.annotation;
+
+/**
+ * How a {@link RateLimited} method counts requests.
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * At most {@code value} requests in any rolling window of {@code duration} seconds.
+     */
+    SLIDING_WINDOW_LOG,
+
+    /**
+     * Bursts of up to {@code value} requests, refilled continuously at {@code value} per {@code duration} seconds.
+     */
+    TOKEN_BUCKET
+}
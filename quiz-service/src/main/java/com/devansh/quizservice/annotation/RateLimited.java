@@ -8,12 +8,14 @@ import java.lang.annotation.Target;
 /**
  * Annotation to mark methods that should be rate limited.
  * Methods annotated with this will be intercepted by RateLimitAspect.
+ * Each annotated method has its own limit per user.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RateLimited {
     /**
-     * Custom rate limit (requests per duration)
+     * Custom rate limit (requests per duration); 0 uses app.rate-limit.requests
+     * and app.rate-limit.duration
      */
     int value() default 0;
     
@@ -21,4 +23,18 @@ public @interface RateLimited {
      * Duration in seconds for the rate limit window
      */
     int duration() default 60;
+
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.SLIDING_WINDOW_LOG;
+
+    /**
+     * Name of the limit, shared by methods that should draw from the same allowance.
+     * Defaults to the declaring class and method name.
+     */
+    String name() default "";
+
+    /**
+     * Exceptions meaning the call was turned away without doing any work; the permit it
+     * took is handed back before the exception propagates.
+     */
+    Class<? extends Throwable>[] refundOn() default {};
 }
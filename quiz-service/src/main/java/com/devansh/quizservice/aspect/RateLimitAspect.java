@@ -1,50 +1,52 @@
 package com.devansh.quizservice.aspect;
 
+import com.devansh.quizservice.annotation.RateLimited;
 import com.devansh.quizservice.exception.RateLimitExceededException;
+import com.devansh.quizservice.security.CallerResolver;
+import com.devansh.quizservice.service.RateLimitDecision;
 import com.devansh.quizservice.service.RateLimiterService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
 
 @Aspect
 @Component
 public class RateLimitAspect {
 
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
     private final RateLimiterService rateLimiterService;
+    private final CallerResolver callerResolver;
 
     @Autowired
-    public RateLimitAspect(RateLimiterService rateLimiterService) {
+    public RateLimitAspect(RateLimiterService rateLimiterService, CallerResolver callerResolver) {
         this.rateLimiterService = rateLimiterService;
+        this.callerResolver = callerResolver;
     }
 
-    @Around("@annotation(com.devansh.quizservice.annotation.RateLimited)")
-    public Object rateLimit(ProceedingJoinPoint joinPoint) throws Throwable {
-        // Get the user ID from the method arguments
-        // Assuming the first argument is the userId or contains it
+    @Around("@annotation(rateLimited)")
+    public Object rateLimit(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
+        // Get the user ID from the method arguments: a Long userId or a Bearer token
         Object[] args = joinPoint.getArgs();
         Long userId = null;
-        
-        // Try to find Long userId in method arguments
+
         for (Object arg : args) {
             if (arg instanceof Long) {
                 userId = (Long) arg;
                 break;
             } else if (arg instanceof String && ((String) arg).startsWith("Bearer ")) {
-                // If it's a JWT token, extract userId (simplified example)
-                // In a real app, you'd decode the JWT to get the userId
-                String token = ((String) arg).substring(7);
-                try {
-                    // This is a simplified example - in a real app, use a proper JWT library
-                    String[] parts = token.split("\\.");
-                    if (parts.length > 1) {
-                        // This is just a placeholder - in reality, you'd decode the JWT properly
-                        userId = 1L; // Default user ID for demo
-                    }
-                } catch (Exception e) {
-                    throw new SecurityException("Invalid token");
-                }
+                userId = callerResolver.resolve((String) arg).userId();
                 break;
             }
         }
@@ -53,16 +55,50 @@ public class RateLimitAspect {
             throw new SecurityException("User ID not found in request");
         }
 
-        // Check rate limit
-        if (!rateLimiterService.isAllowed(userId)) {
-            long retryAfter = rateLimiterService.getTimeUntilReset(userId);
-            throw new RateLimitExceededException(
-                String.format("Rate limit exceeded. Try again in %d seconds.", retryAfter),
-                retryAfter
-            );
+        long limit = rateLimited.value() > 0 ? rateLimited.value() : rateLimiterService.getDefaultRequests();
+        Duration window = rateLimited.value() > 0
+                ? Duration.ofSeconds(rateLimited.duration())
+                : rateLimiterService.getDefaultWindow();
+        String name = rateLimited.name().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : rateLimited.name();
+
+        RateLimitDecision decision = rateLimiterService.tryAcquire(name, userId, rateLimited.algorithm(), limit, window);
+        if (!decision.allowed()) {
+            throw new RateLimitExceededException(decision);
         }
+        addHeaders(decision);
 
         // Proceed with the method call
-        return joinPoint.proceed();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            for (Class<? extends Throwable> refundable : rateLimited.refundOn()) {
+                if (refundable.isInstance(e)) {
+                    rateLimiterService.refund(name, userId);
+                    break;
+                }
+            }
+            throw e;
+        }
+    }
+
+    public static HttpHeaders headers(RateLimitDecision decision) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(decision.limit()));
+        headers.set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.set(RESET_HEADER, String.valueOf(decision.resetSeconds()));
+        return headers;
+    }
+
+    // Rejections carry their headers on the exception; see GlobalExceptionHandler
+    private static void addHeaders(RateLimitDecision decision) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            HttpServletResponse response = servlet.getResponse();
+            if (response != null && !response.isCommitted()) {
+                headers(decision).forEach((name, values) -> response.setHeader(name, values.get(0)));
+            }
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.devansh.quizservice.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Wait for a client call, rethrowing the original unchecked failure rather than
+     * the {@link CompletionException} that wraps it.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.devansh.quizservice.client;
+
+import com.devansh.quizservice.dto.QuestionImportReport;
+import com.devansh.quizservice.model.Question;
+import com.devansh.quizservice.model.QuestionWrapper;
+import com.devansh.quizservice.model.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous client for question-service, load balanced through Eureka.
+ */
+@Component
+public class QuestionClient {
+
+    private static final ParameterizedTypeReference<List<Integer>> INTEGER_LIST = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<QuestionWrapper>> QUESTION_LIST = new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final Duration generateTimeout;
+    private final Duration getQuestionsTimeout;
+    private final Duration scoresTimeout;
+    private final Duration addQuestionsTimeout;
+
+    @Autowired
+    public QuestionClient(
+            @Qualifier("questionServiceWebClient") WebClient webClient,
+            @Value("${quiz.client.question.generate-timeout-ms:2000}") long generateTimeoutMillis,
+            @Value("${quiz.client.question.get-questions-timeout-ms:5000}") long getQuestionsTimeoutMillis,
+            @Value("${quiz.client.question.scores-timeout-ms:5000}") long scoresTimeoutMillis,
+            @Value("${quiz.client.question.add-questions-timeout-ms:5000}") long addQuestionsTimeoutMillis) {
+        this.webClient = webClient;
+        this.generateTimeout = Duration.ofMillis(generateTimeoutMillis);
+        this.getQuestionsTimeout = Duration.ofMillis(getQuestionsTimeoutMillis);
+        this.scoresTimeout = Duration.ofMillis(scoresTimeoutMillis);
+        this.addQuestionsTimeout = Duration.ofMillis(addQuestionsTimeoutMillis);
+    }
+
+    /**
+     * Random question ids for a new quiz.
+     */
+    public CompletableFuture<List<Integer>> getQuestionsForQuiz(String categoryName, Integer numQuestions) {
+        return webClient.get()
+                .uri(uri -> uri.path("/question/generate")
+                        .queryParam("categoryName", categoryName)
+                        .queryParam("numQuestions", numQuestions)
+                        .build())
+                .retrieve()
+                .bodyToMono(INTEGER_LIST)
+                .timeout(generateTimeout)
+                .toFuture();
+    }
+
+    /**
+     * Rendered questions for the given ids. Unknown ids are absent from the result.
+     */
+    public CompletableFuture<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
+        return webClient.post()
+                .uri("/question/getQuestions")
+                .bodyValue(questionIds)
+                .retrieve()
+                .bodyToMono(QUESTION_LIST)
+                .timeout(getQuestionsTimeout)
+                .toFuture();
+    }
+
+    /**
+     * One score per submission, in submission order.
+     */
+    public CompletableFuture<List<Integer>> getScores(List<List<Response>> submissions) {
+        return webClient.post()
+                .uri("/question/getScores")
+                .bodyValue(submissions)
+                .retrieve()
+                .bodyToMono(INTEGER_LIST)
+                .timeout(scoresTimeout)
+                .toFuture();
+    }
+
+    /**
+     * Store new questions through question-service's bulk import. Invalid questions are
+     * rejected individually; the report lists the ids of the accepted ones.
+     */
+    public CompletableFuture<QuestionImportReport> addQuestions(List<Question> questions) {
+        return webClient.post()
+                .uri("/question/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(questions)
+                .retrieve()
+                .bodyToMono(QuestionImportReport.class)
+                .timeout(addQuestionsTimeout)
+                .toFuture();
+    }
+}
@@ -0,0 +1,49 @@
+package com.devansh.quizservice.client;
+
+import com.devansh.quizservice.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous client for user-service.
+ */
+@Component
+public class UserClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    @Autowired
+    public UserClient(
+            @Qualifier("userServiceWebClient") WebClient webClient,
+            @Value("${quiz.client.user.timeout-ms:2000}") long timeoutMillis) {
+        this.webClient = webClient;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * Completes normally if the user exists, or exceptionally with
+     * {@link ResourceNotFoundException} if user-service does not know the id.
+     */
+    public CompletableFuture<Void> requireUser(Long userId, String authHeader) {
+        return webClient.get()
+                .uri("/api/v1/users/{id}", userId)
+                .header(HttpHeaders.AUTHORIZATION, authHeader)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        response -> Mono.error(new ResourceNotFoundException("User", "id", userId)))
+                .toBodilessEntity()
+                .timeout(timeout)
+                .then()
+                .toFuture();
+    }
+}
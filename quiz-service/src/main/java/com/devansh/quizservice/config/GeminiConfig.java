@@ -0,0 +1,41 @@
+package com.devansh.quizservice.config;
+
+import com.google.api.gax.grpc.ChannelPoolSettings;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.cloud.aiplatform.v1beta1.PredictionServiceClient;
+import com.google.cloud.aiplatform.v1beta1.PredictionServiceSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+
+/**
+ * One Vertex AI prediction client for the whole service. The client owns a fixed pool of
+ * gRPC channels; channel setup, TLS and credential loading happen once, when the first
+ * AI request arrives, instead of on every call.
+ */
+@Configuration
+public class GeminiConfig {
+
+    @Value("${gemini.location:us-central1}")
+    private String location;
+
+    @Value("${gemini.channel-pool-size:2}")
+    private int channelPoolSize;
+
+    // Lazy so the service starts without Google credentials when AI generation is unused
+    @Lazy
+    @Bean(destroyMethod = "close")
+    public PredictionServiceClient predictionServiceClient() throws IOException {
+        InstantiatingGrpcChannelProvider channels = PredictionServiceSettings.defaultGrpcTransportProviderBuilder()
+                .setChannelPoolSettings(ChannelPoolSettings.staticallySized(channelPoolSize))
+                .build();
+        PredictionServiceSettings settings = PredictionServiceSettings.newBuilder()
+                .setEndpoint(String.format("%s-aiplatform.googleapis.com:443", location))
+                .setTransportChannelProvider(channels)
+                .build();
+        return PredictionServiceClient.create(settings);
+    }
+}
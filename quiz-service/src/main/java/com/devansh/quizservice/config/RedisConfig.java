@@ -1,36 +1,208 @@
 package com.devansh.quizservice.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lettuce connection to Redis in standalone, Sentinel or Cluster mode ({@code app.redis.mode}).
+ * <p>
+ * Commands share one multiplexed connection; the commons-pool2 pool only serves blocking
+ * and transactional operations. Read-only commands may be served by replicas according
+ * to {@code app.redis.read-from}; writes, scripts and pub/sub always go to the primary.
+ * Command latencies are published as {@code lettuce.command.*} meters.
+ */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    @Value("${app.redis.mode:standalone}")
+    private String mode;
+
     @Value("${spring.redis.host}")
     private String redisHost;
 
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${app.redis.password:}")
+    private String password;
+
+    @Value("${app.redis.sentinel.master:mymaster}")
+    private String sentinelMaster;
+
+    @Value("${app.redis.sentinel.nodes:}")
+    private String sentinelNodes;
+
+    @Value("${app.redis.cluster.nodes:}")
+    private String clusterNodes;
+
+    @Value("${app.redis.cluster.max-redirects:3}")
+    private int clusterMaxRedirects;
+
+    @Value("${app.redis.cluster.topology-refresh-ms:30000}")
+    private long clusterTopologyRefreshMillis;
+
+    @Value("${app.redis.read-from:replicaPreferred}")
+    private String readFrom;
+
+    @Value("${spring.redis.timeout:5000}")
+    private long commandTimeoutMillis;
+
+    @Value("${app.redis.connect-timeout-ms:1000}")
+    private long connectTimeoutMillis;
+
+    @Value("${app.redis.shutdown-timeout-ms:100}")
+    private long shutdownTimeoutMillis;
+
+    @Value("${app.redis.pool.max-active:16}")
+    private int poolMaxActive;
+
+    @Value("${app.redis.pool.max-idle:8}")
+    private int poolMaxIdle;
+
+    @Value("${app.redis.pool.min-idle:2}")
+    private int poolMinIdle;
+
+    @Value("${app.redis.pool.max-wait-ms:500}")
+    private long poolMaxWaitMillis;
+
+    @Value("${app.redis.pipelining.flush-after:0}")
+    private int pipeliningFlushAfter;
+
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(MeterRegistry meterRegistry) {
+        return DefaultClientResources.builder()
+                .commandLatencyRecorder(new MicrometerCommandLatencyRecorder(meterRegistry,
+                        MicrometerOptions.builder().histogram(true).build()))
+                .build();
+    }
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
+        GenericObjectPoolConfig<LettuceConnection> pool = new GenericObjectPoolConfig<>();
+        pool.setMaxTotal(poolMaxActive);
+        pool.setMaxIdle(poolMaxIdle);
+        pool.setMinIdle(poolMinIdle);
+        pool.setMaxWait(Duration.ofMillis(poolMaxWaitMillis));
+
+        LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder client =
+                LettucePoolingClientConfiguration.builder()
+                        .poolConfig(pool)
+                        .clientResources(lettuceClientResources)
+                        .clientOptions(clientOptions())
+                        .commandTimeout(Duration.ofMillis(commandTimeoutMillis))
+                        .shutdownTimeout(Duration.ofMillis(shutdownTimeoutMillis));
+        if (!isStandalone()) {
+            client.readFrom(ReadFrom.valueOf(readFrom));
+        }
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(serverConfiguration(), client.build());
+        factory.setPipeliningFlushPolicy(pipeliningFlushAfter > 1
+                ? LettuceConnection.PipeliningFlushPolicy.buffered(pipeliningFlushAfter)
+                : LettuceConnection.PipeliningFlushPolicy.flushEachCommand());
+        return factory;
+    }
+
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
-        return new LettuceConnectionFactory(config);
+    public StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        return new StringRedisTemplate(redisConnectionFactory);
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new StringRedisSerializer());
-        return template;
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    private RedisConfiguration serverConfiguration() {
+        RedisPassword redisPassword = password.isEmpty() ? RedisPassword.none() : RedisPassword.of(password);
+        switch (mode.toLowerCase(Locale.ROOT)) {
+            case "sentinel" -> {
+                RedisSentinelConfiguration sentinel = new RedisSentinelConfiguration(sentinelMaster, nodes(sentinelNodes));
+                sentinel.setPassword(redisPassword);
+                return sentinel;
+            }
+            case "cluster" -> {
+                RedisClusterConfiguration cluster = new RedisClusterConfiguration(nodes(clusterNodes));
+                cluster.setMaxRedirects(clusterMaxRedirects);
+                cluster.setPassword(redisPassword);
+                return cluster;
+            }
+            case "standalone" -> {
+                RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(redisHost, redisPort);
+                standalone.setPassword(redisPassword);
+                return standalone;
+            }
+            default -> throw new IllegalArgumentException("Unknown app.redis.mode: " + mode);
+        }
+    }
+
+    // Fail fast while disconnected so callers (the rate limiter) can fall back instead of queueing
+    private ClientOptions clientOptions() {
+        SocketOptions socket = SocketOptions.builder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .keepAlive(true)
+                .tcpNoDelay(true)
+                .build();
+        TimeoutOptions timeouts = TimeoutOptions.enabled(Duration.ofMillis(commandTimeoutMillis));
+        if ("cluster".equalsIgnoreCase(mode)) {
+            return ClusterClientOptions.builder()
+                    .socketOptions(socket)
+                    .timeoutOptions(timeouts)
+                    .autoReconnect(true)
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                            .enablePeriodicRefresh(Duration.ofMillis(clusterTopologyRefreshMillis))
+                            .enableAllAdaptiveRefreshTriggers()
+                            .build())
+                    .build();
+        }
+        return ClientOptions.builder()
+                .socketOptions(socket)
+                .timeoutOptions(timeouts)
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
+    }
+
+    private boolean isStandalone() {
+        return "standalone".equalsIgnoreCase(mode);
+    }
+
+    private static List<String> nodes(String csv) {
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .toList();
     }
 }
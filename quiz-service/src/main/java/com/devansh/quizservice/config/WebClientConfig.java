@@ -0,0 +1,77 @@
+package com.devansh.quizservice.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking HTTP clients for calls to question-service and user-service. Both share one
+ * pool of keep-alive connections; per-call timeouts are applied by the clients themselves.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Value("${quiz.client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${quiz.client.pending-acquire-timeout-ms:2000}")
+    private long pendingAcquireTimeoutMillis;
+
+    @Value("${quiz.client.max-idle-ms:30000}")
+    private long maxIdleMillis;
+
+    @Value("${quiz.client.connect-timeout-ms:1000}")
+    private int connectTimeoutMillis;
+
+    @Value("${quiz.client.max-response-bytes:16777216}")
+    private int maxResponseBytes;
+
+    @Value("${user.service.url}")
+    private String userServiceUrl;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider interServiceConnectionProvider() {
+        return ConnectionProvider.builder("inter-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleMillis))
+                .evictInBackground(Duration.ofMillis(maxIdleMillis))
+                .build();
+    }
+
+    /**
+     * Resolves service ids such as {@code QUESTION-SERVICE} through Eureka.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ConnectionProvider interServiceConnectionProvider) {
+        return builder(interServiceConnectionProvider);
+    }
+
+    @Bean
+    public WebClient questionServiceWebClient(@LoadBalanced WebClient.Builder loadBalancedWebClientBuilder) {
+        return loadBalancedWebClientBuilder.clone().baseUrl("http://QUESTION-SERVICE").build();
+    }
+
+    @Bean
+    public WebClient userServiceWebClient(ConnectionProvider interServiceConnectionProvider) {
+        return builder(interServiceConnectionProvider).baseUrl(userServiceUrl).build();
+    }
+
+    private WebClient.Builder builder(ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .keepAlive(true);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes));
+    }
+}
@@ -6,10 +6,12 @@ import com.devansh.quizservice.model.Response;
 import com.devansh.quizservice.model.AIGenerateQuizRequest;
 import com.devansh.quizservice.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("quiz")
@@ -40,17 +42,64 @@ public class QuizController {
             @PathVariable Integer id, 
             @RequestBody List<Response> responses
     ) {
-        return quizService.calculateResult(id, responses, authHeader);
+        return quizService.submitQuiz(id, responses, authHeader);
     }
 
+    /**
+     * Poll a submitted attempt; {@code status} stays PENDING until it has been graded
+     */
+    @GetMapping("attempts/{attemptId}")
+    public ResponseEntity<?> getAttempt(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable UUID attemptId
+    ) {
+        return quizService.getAttempt(attemptId, authHeader);
+    }
+
+    /**
+     * Server-sent event stream that delivers the graded attempt once, then closes
+     */
+    @GetMapping(value = "attempts/{attemptId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToAttempt(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable UUID attemptId
+    ) {
+        return quizService.subscribeToAttempt(attemptId, authHeader);
+    }
+
+    /**
+     * Start generating a quiz with AI; returns 202 with the job to follow
+     */
     @PostMapping("generate-with-ai")
-    public ResponseEntity<String> createQuizWithAI(
+    public ResponseEntity<?> createQuizWithAI(
             @RequestHeader("Authorization") String authHeader,
             @RequestBody AIGenerateQuizRequest request
     ) {
         return quizService.createQuizWithAI(request, authHeader);
     }
 
+    /**
+     * Poll an AI generation job; {@code quizId} is set once it has SUCCEEDED
+     */
+    @GetMapping("ai-jobs/{jobId}")
+    public ResponseEntity<?> getAiJob(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable UUID jobId
+    ) {
+        return quizService.getAiJob(jobId, authHeader);
+    }
+
+    /**
+     * Server-sent event stream of the job's questions as they are parsed, then its result
+     */
+    @GetMapping(value = "ai-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToAiJob(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable UUID jobId
+    ) {
+        return quizService.subscribeToAiJob(jobId, authHeader);
+    }
+
     /**
      * Get all quizzes for the current user (without question details)
      * @param authHeader Authorization header with JWT token
@@ -0,0 +1,131 @@
+package com.devansh.quizservice.dao;
+
+import com.devansh.quizservice.model.QuizAttempt;
+import com.devansh.quizservice.model.Response;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Attempts are written as one JDBC batch per grading round: first as {@code PENDING} rows
+ * when a worker picks them up, then completed in place once graded.
+ */
+@Repository
+public class QuizAttemptDao {
+
+    private static final String INSERT_ATTEMPT =
+            "INSERT INTO quiz_attempts (id, quiz_id, user_id, status, score, total, responses, submitted_at, graded_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?)";
+
+    // A final outcome completes the PENDING row but never replaces another final outcome
+    private static final String SAVE_ATTEMPT = INSERT_ATTEMPT +
+            " ON CONFLICT (id) DO UPDATE SET status = EXCLUDED.status, score = EXCLUDED.score, " +
+            "graded_at = EXCLUDED.graded_at WHERE quiz_attempts.status = 'PENDING'";
+
+    private static final String INSERT_PENDING = INSERT_ATTEMPT + " ON CONFLICT (id) DO NOTHING";
+
+    private static final String SELECT_ATTEMPT =
+            "SELECT id, quiz_id, user_id, status, score, total, submitted_at, graded_at FROM quiz_attempts WHERE id = ?";
+
+    private static final String SELECT_STALE_PENDING =
+            "SELECT id, quiz_id, user_id, status, score, total, submitted_at, graded_at, responses FROM quiz_attempts " +
+            "WHERE status = 'PENDING' AND submitted_at < ? ORDER BY submitted_at LIMIT ?";
+
+    private static final TypeReference<List<Response>> RESPONSE_LIST = new TypeReference<>() {};
+
+    private static final RowMapper<QuizAttempt> ROW_MAPPER = (rs, rowNum) -> attempt(rs, null);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public QuizAttemptDao(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Store final outcomes, completing their PENDING rows where those exist.
+     */
+    public void insertBatch(List<QuizAttempt> attempts) {
+        write(SAVE_ATTEMPT, attempts);
+    }
+
+    /**
+     * Record attempts as PENDING; rows that already exist are left alone.
+     */
+    public void insertPending(List<QuizAttempt> attempts) {
+        write(INSERT_PENDING, attempts);
+    }
+
+    /**
+     * Oldest attempts still PENDING that were submitted before {@code before}, with their responses.
+     */
+    public List<QuizAttempt> findPendingSubmittedBefore(LocalDateTime before, int limit) {
+        return jdbcTemplate.query(SELECT_STALE_PENDING,
+                (rs, rowNum) -> attempt(rs, fromJson(rs.getString("responses"))),
+                Timestamp.valueOf(before), limit);
+    }
+
+    private void write(String sql, List<QuizAttempt> attempts) {
+        jdbcTemplate.batchUpdate(sql, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setObject(1, attempt.getId());
+            ps.setInt(2, attempt.getQuizId());
+            ps.setLong(3, attempt.getUserId());
+            ps.setString(4, attempt.getStatus().name());
+            ps.setObject(5, attempt.getScore(), Types.INTEGER);
+            ps.setInt(6, attempt.getTotal());
+            ps.setString(7, toJson(attempt));
+            ps.setTimestamp(8, Timestamp.valueOf(attempt.getSubmittedAt()));
+            ps.setTimestamp(9, attempt.getGradedAt() == null ? null : Timestamp.valueOf(attempt.getGradedAt()));
+        });
+    }
+
+    public Optional<QuizAttempt> findById(UUID id) {
+        return jdbcTemplate.query(SELECT_ATTEMPT, ROW_MAPPER, id).stream().findFirst();
+    }
+
+    private static QuizAttempt attempt(ResultSet rs, List<Response> responses) throws SQLException {
+        Timestamp gradedAt = rs.getTimestamp("graded_at");
+        return new QuizAttempt(
+                rs.getObject("id", UUID.class),
+                rs.getInt("quiz_id"),
+                rs.getLong("user_id"),
+                QuizAttempt.Status.valueOf(rs.getString("status")),
+                rs.getObject("score", Integer.class),
+                rs.getInt("total"),
+                rs.getTimestamp("submitted_at").toLocalDateTime(),
+                gradedAt == null ? null : gradedAt.toLocalDateTime(),
+                responses);
+    }
+
+    private List<Response> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, RESPONSE_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored responses", e);
+        }
+    }
+
+    private String toJson(QuizAttempt attempt) {
+        try {
+            return objectMapper.writeValueAsString(attempt.getResponses());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize responses of attempt " + attempt.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.devansh.quizservice.dao;
+
+import com.devansh.quizservice.model.QuizSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface QuizSnapshotDao extends JpaRepository<QuizSnapshot, Integer> {
+
+    /**
+     * Store a snapshot unless the quiz already has one; snapshots are never overwritten.
+     *
+     * @return 1 if this call stored it, 0 if one already existed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO quiz_snapshots (quiz_id, version, question_count, content, created_at) " +
+            "VALUES (:quizId, :version, :questionCount, :content, now()) ON CONFLICT (quiz_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(Integer quizId, short version, int questionCount, byte[] content);
+}
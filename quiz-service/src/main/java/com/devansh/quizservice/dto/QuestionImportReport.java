@@ -0,0 +1,30 @@
+package com.devansh.quizservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of question-service's bulk import report that quiz-service uses.
+ * {@code insertedIds} follow the order of the accepted questions; rows are numbered from 1.
+ */
+@Data
+@NoArgsConstructor
+public class QuestionImportReport {
+    private long accepted;
+    private long rejected;
+    private List<Integer> insertedIds = new ArrayList<>();
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A rejected row; {@code duplicateOf} is the stored question it is a near-duplicate of.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private Integer duplicateOf;
+    }
+}
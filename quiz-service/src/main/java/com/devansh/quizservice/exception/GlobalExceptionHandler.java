@@ -0,0 +1,19 @@
+package com.devansh.quizservice.exception;
+
+import com.devansh.quizservice.aspect.RateLimitAspect;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException ex) {
+        HttpHeaders headers = RateLimitAspect.headers(ex.getDecision());
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(ex.getMessage(), headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,12 @@
+package com.devansh.quizservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidTokenException extends IllegalArgumentException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -1,18 +1,23 @@
 package com.devansh.quizservice.exception;
 
+import com.devansh.quizservice.service.RateLimitDecision;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
 public class RateLimitExceededException extends RuntimeException {
-    private final long retryAfterSeconds;
+    private final RateLimitDecision decision;
     
-    public RateLimitExceededException(String message, long retryAfterSeconds) {
-        super(message);
-        this.retryAfterSeconds = retryAfterSeconds;
+    public RateLimitExceededException(RateLimitDecision decision) {
+        super(String.format("Rate limit exceeded. Try again in %d seconds.", decision.retryAfterSeconds()));
+        this.decision = decision;
     }
     
     public long getRetryAfterSeconds() {
-        return retryAfterSeconds;
+        return decision.retryAfterSeconds();
+    }
+
+    public RateLimitDecision getDecision() {
+        return decision;
     }
 }
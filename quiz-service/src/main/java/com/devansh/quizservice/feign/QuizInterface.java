@@ -1,31 +0,0 @@
-package com.devansh.quizservice.feign;
-
-import com.devansh.quizservice.model.QuestionWrapper;
-import com.devansh.quizservice.model.Response;
-import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestParam;
-
-import java.util.List;
-
-@FeignClient("QUESTION-SERVICE")
-public interface QuizInterface {
-    @GetMapping("question/generate")
-    public ResponseEntity<List<Integer>> getQuestionsForQuiz
-            (@RequestParam String categoryName, @RequestParam Integer numQuestions );
-
-    @PostMapping("question/getQuestions")
-    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(@RequestBody List<Integer> questionIds);
-
-    @PostMapping("question/getScore")
-    public ResponseEntity<Integer> getScore(@RequestBody List<Response> responses);
-
-    @PostMapping("add")
-    public ResponseEntity<String> addQuestion(@RequestBody Question question){
-        return  questionService.addQuestion(question);
-    }
-}
-
@@ -0,0 +1,31 @@
+package com.devansh.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An AI quiz generation request. Jobs are kept in memory; once {@code SUCCEEDED},
+ * {@code quizId} names the created quiz. {@code questions} are the questions parsed so far,
+ * without their answers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiQuizJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private UUID id;
+    private Long userId;
+    private Status status;
+    private Integer quizId;
+    private String error;
+    private List<QuestionWrapper> questions;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
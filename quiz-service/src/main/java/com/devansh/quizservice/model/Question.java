@@ -0,0 +1,26 @@
+package com.devansh.quizservice.model;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A full question, including its answer, as stored by question-service.
+ */
+@Data
+@NoArgsConstructor
+public class Question {
+
+    private Integer id;
+    private String questionTitle;
+    private String option1;
+    private String option2;
+    private String option3;
+    private String option4;
+    private String rightAnswer;
+
+    @JsonAlias("difficultyLevel")
+    private String difficultylevel;
+
+    private String category;
+}
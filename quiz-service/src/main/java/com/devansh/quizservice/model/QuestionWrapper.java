@@ -1,8 +1,10 @@
 package com.devansh.quizservice.model;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class QuestionWrapper {
 
     private Integer id;
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,7 +24,9 @@ public class Quiz {
     private String title;
     private Long userId; // ID of the user who created the quiz
 
-    @ElementCollection
+    // Stored inline as a Postgres int[] so the ids load with the quiz row
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "question_ids", columnDefinition = "integer[]", nullable = false)
     private List<Integer> questionIds;
     
     @CreationTimestamp
@@ -0,0 +1,34 @@
+package com.devansh.quizservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One submission of a quiz. Attempts are {@code PENDING} until a grading worker scores
+ * them; the worker records them in {@code quiz_attempts} first so they survive a restart.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizAttempt {
+
+    public enum Status { PENDING, GRADED, FAILED }
+
+    private UUID id;
+    private Integer quizId;
+    private Long userId;
+    private Status status;
+    private Integer score;
+    private int total;
+    private LocalDateTime submittedAt;
+    private LocalDateTime gradedAt;
+
+    @JsonIgnore
+    private List<Response> responses;
+}
@@ -0,0 +1,37 @@
+package com.devansh.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a quiz's rendered questions, written once when the quiz is created.
+ * {@code content} is a gzipped JSON array of {@link QuestionWrapper} in quiz order;
+ * {@code version} identifies that encoding.
+ */
+@Entity
+@Table(name = "quiz_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSnapshot {
+
+    @Id
+    @Column(name = "quiz_id")
+    private Integer quizId;
+
+    private short version;
+
+    @Column(name = "question_count")
+    private int questionCount;
+
+    private byte[] content;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.devansh.quizservice.security;
+
+/**
+ * The authenticated user behind a request, as asserted by a verified user-service token.
+ */
+public record Caller(Long userId, String role) {
+}
@@ -0,0 +1,142 @@
+package com.devansh.quizservice.security;
+
+import com.devansh.quizservice.exception.InvalidTokenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the {@link Caller} of a request from its {@code Authorization: Bearer} header.
+ * <p>
+ * Tokens are verified locally against the HS256 key shared with user-service. Verified
+ * claims are cached under a SHA-256 hash of the token until the token expires, and the
+ * result is also kept on the current request, so the aspect, services and controllers
+ * that handle one request share a single lookup.
+ */
+@Component
+public class CallerResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CallerResolver.class.getName() + ".caller";
+
+    private record Verified(String authHeader, Caller caller, long expiresAtMillis) {
+    }
+
+    private final JwtParser parser;
+    private final Cache<String, Verified> verified;
+    private final long maxTtlMillis;
+
+    @Autowired
+    public CallerResolver(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.issuer:}") String issuer,
+            @Value("${quiz.auth.claims-cache-max-size:100000}") long maxSize,
+            @Value("${quiz.auth.claims-cache-max-ttl-ms:3600000}") long maxTtlMillis) {
+        JwtParserBuilder builder = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+        if (!issuer.isBlank()) {
+            builder.requireIssuer(issuer);
+        }
+        this.parser = builder.build();
+        this.maxTtlMillis = maxTtlMillis;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Verified>() {
+                    @Override
+                    public long expireAfterCreate(String key, Verified value, long currentTime) {
+                        long remaining = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Verified value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Verified value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @throws InvalidTokenException if the header is missing, malformed, expired or not signed by user-service
+     */
+    public Caller resolve(String authHeader) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof Verified memo && memo.authHeader().equals(authHeader)) {
+            return memo.caller();
+        }
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new InvalidTokenException("Invalid or missing authorization token");
+        }
+        String token = authHeader.substring(7).trim();
+        String key = hash(token);
+        Verified entry = verified.getIfPresent(key);
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entry = verify(authHeader, token);
+            verified.put(key, entry);
+        }
+
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, entry, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entry.caller();
+    }
+
+    private Verified verify(String authHeader, String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid authorization token");
+        }
+        Long userId;
+        try {
+            userId = claims.get("userId", Long.class);
+        } catch (RuntimeException e) {
+            userId = null;
+        }
+        if (userId == null) {
+            throw new InvalidTokenException("Authorization token has no userId claim");
+        }
+
+        long now = System.currentTimeMillis();
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null
+                ? Math.min(expiration.getTime(), now + maxTtlMillis)
+                : now + maxTtlMillis;
+        return new Verified(authHeader, new Caller(userId, claims.get("role", String.class)), expiresAt);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
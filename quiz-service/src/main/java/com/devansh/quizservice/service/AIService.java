@@ -1,25 +1,33 @@
 package com.devansh.quizservice.service;
 
-import com.devansh.quizservice.annotation.RateLimited;
-import com.devansh.quizservice.exception.RateLimitExceededException;
+import com.devansh.quizservice.client.QuestionClient;
 import com.devansh.quizservice.model.Question;
+import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.aiplatform.v1beta1.*;
-import com.google.protobuf.Value;
-import com.google.protobuf.util.JsonFormat;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.Reader;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
 public class AIService {
 
+    private static final Logger log = LoggerFactory.getLogger(AIService.class);
+
+    // Bump when the prompt changes so cached results of the old prompt are not reused
+    private static final int PROMPT_VERSION = 1;
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
@@ -28,43 +36,140 @@ public class AIService {
 
     @Value("${gemini.location:us-central1}")
     private String location;
-    
-    private final RateLimiterService rateLimiterService;
-    
+
+    @Value("${gemini.model:gemini-pro}")
+    private String modelName;
+
+    @Autowired
+    private ObjectProvider<PredictionServiceClient> predictionServiceClient;
+
     @Autowired
-    public AIService(RateLimiterService rateLimiterService) {
-        this.rateLimiterService = rateLimiterService;
+    private GeneratedQuestionCache generatedQuestionCache;
+
+    @Autowired
+    private QuestionStreamParser questionStreamParser;
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Value("${quiz.ai.persist-batch-size:10}")
+    private int persistBatchSize;
+
+    @Value("${quiz.ai.coalesce.window-ms:200}")
+    private long coalesceWindowMillis;
+
+    @Value("${quiz.ai.coalesce.max-questions:30}")
+    private int coalesceMaxQuestions;
+
+    private GenerationCoalescer coalescer;
+
+    @PostConstruct
+    void init() {
+        coalescer = new GenerationCoalescer(this::generateBatch, coalesceWindowMillis, coalesceMaxQuestions);
+    }
+
+    /**
+     * Generate (or reuse) a stored question set, handing each question to {@code onQuestion}
+     * as soon as it is available.
+     * <p>
+     * Concurrent requests with the same category and difficulty and a similar role and
+     * experience are served by one model call (see {@link GenerationCoalescer}); the returned
+     * future may then complete on another request's thread. Each caller has already been
+     * charged once against its own quota by {@link AiQuizJobService#submit}.
+     */
+    public CompletableFuture<GeneratedQuestionSet> generateQuestions(String category, String difficulty, String roleType,
+                                                                     int yearsOfExp, int count, Consumer<Question> onQuestion) {
+        String key = GeneratedQuestionCache.key(modelName, PROMPT_VERSION, category, difficulty, roleType, yearsOfExp, count);
+        GeneratedQuestionSet cached = generatedQuestionCache.get(key);
+        if (cached != null) {
+            cached.getQuestions().forEach(onQuestion);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        GenerationCoalescer.Request request = new GenerationCoalescer.Request(key, category, difficulty, roleType,
+            yearsOfExp, count, onQuestion, new QuestionBatchWriter(questionClient, persistBatchSize));
+        return coalescer.submit(bucket(category, difficulty, roleType, yearsOfExp), request);
+    }
+
+    // Requests in one bucket can share a prompt: same topic and level, similar audience
+    private static String bucket(String category, String difficulty, String roleType, int yearsOfExp) {
+        int experience = yearsOfExp < 2 ? 0 : yearsOfExp < 5 ? 1 : yearsOfExp < 10 ? 2 : 3;
+        return String.join("\u0000", normalize(category), normalize(difficulty), normalize(roleType),
+            String.valueOf(experience));
+    }
+
+    // Room for a combined request: about 160 tokens per question plus the JSON framing
+    private static int maxOutputTokens(int count) {
+        return Math.min(8192, Math.max(2048, 256 + count * 160));
     }
 
-    @RateLimited
-    public List<Question> generateQuestions(String category, String difficulty, String roleType, int yearsOfExp, int count, String authHeader) throws IOException {
-        // Extract user ID from auth header (in a real app, decode JWT properly)
-        Long userId = extractUserIdFromAuthHeader(authHeader);
-        
-        // Check rate limit
-        if (!rateLimiterService.isAllowed(userId)) {
-            long retryAfter = rateLimiterService.getTimeUntilReset(userId);
-            throw new RateLimitExceededException(
-                String.format("Rate limit exceeded. Try again in %d seconds.", retryAfter),
-                retryAfter
-            );
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One model call for the whole group, prompted with the first request's parameters.
+     * Questions are dealt round-robin to the requests that still need some, so every caller
+     * starts receiving questions early.
+     */
+    private void generateBatch(List<GenerationCoalescer.Request> requests) throws IOException {
+        GenerationCoalescer.Request first = requests.get(0);
+        int total = requests.stream().mapToInt(request -> request.count).sum();
+        // Each valid question is streamed to its caller and to question-service as soon as the
+        // model has written it; closing the reader cancels whatever the model writes after the array
+        int[] next = {0};
+        QuestionStreamParser.Result parsed;
+        try (Reader text = complete(first.category, first.difficulty, first.roleType, first.yearsOfExp, total)) {
+            parsed = questionStreamParser.parse(text, first.category, first.difficulty,
+                question -> {
+                    for (int i = 0; i < requests.size(); i++) {
+                        GenerationCoalescer.Request request = requests.get((next[0] + i) % requests.size());
+                        if (!request.isFull()) {
+                            request.accept(question);
+                            next[0] = (next[0] + i + 1) % requests.size();
+                            return;
+                        }
+                    }
+                });
+        }
+        if (parsed.rejected() > 0) {
+            log.info("Dropped {} of {} generated questions that failed validation",
+                parsed.rejected(), parsed.accepted() + parsed.rejected());
+        }
+        if (requests.size() > 1) {
+            log.debug("Served {} AI requests ({} questions) with one model call", requests.size(), total);
+        }
+
+        for (GenerationCoalescer.Request request : requests) {
+            try {
+                request.result.complete(
+                    generatedQuestionCache.put(request.cacheKey, request.count, request.questions, request.writer.finish()));
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
         }
+    }
+
+    /**
+     * Start a streaming model call; the returned reader yields the response text as it is generated.
+     */
+    private Reader complete(String category, String difficulty, String roleType, int yearsOfExp, int count) {
         String prompt = String.format("""
             Generate %d multiple-choice questions about %s for a %s with %d years of experience.
             Difficulty level: %s
-            
+
             For each question, provide:
             1. The question text
             2. 4 options (A, B, C, D)
             3. The correct answer (A, B, C, or D)
-            
+
             Format the response as a JSON array of objects with these fields:
             - questionTitle: The question text
             - option1, option2, option3, option4: The multiple choice options
             - rightAnswer: The correct option (1-4)
             - difficultyLevel: The difficulty level (%s)
             - category: The category (%s)
-            
+
             Example response:
             [
                 {
@@ -81,72 +186,45 @@ public class AIService {
             """,
             count, category, roleType, yearsOfExp, difficulty, difficulty, category, difficulty, category);
 
-        try (PredictionServiceClient client = PredictionServiceClient.create()) {
-            String endpoint = String.format("%s-aiplatform.googleapis.com:443", location);
-            String model = "projects/%s/locations/%s/publishers/google/models/gemini-pro";
-            model = String.format(model, projectId, location);
+        String model = String.format("projects/%s/locations/%s/publishers/google/models/%s",
+            projectId, location, modelName);
 
-            String contents = String.format("""
-                {
-                    "contents": [{
-                        "parts": [{"text": "%s"}]
-                    }]
-                }
-                """, prompt.replace("\"", "\\\""));
-
-            Value.Builder instanceValue = Value.newBuilder();
-            JsonFormat.parser().merge(contents, instanceValue);
-            List<Value> instances = List.of(instanceValue.build());
-
-            Value parameters = Value.newBuilder()
-                .setStructValue(com.google.protobuf.Struct.newBuilder()
-                    .putFields("temperature", Value.newBuilder().setNumberValue(0.2).build())
-                    .putFields("maxOutputTokens", Value.newBuilder().setNumberValue(2048).build())
-                    .build())
-                .build();
-
-            PredictResponse response = client.predict(model, instances, parameters);
-            String jsonResponse = response.getPredictions(0).getStructValue()
-                .getFieldsOrThrow("candidates")
-                .getListValue()
-                .getValues(0)
-                .getStructValue()
-                .getFieldsOrThrow("content")
-                .getStructValue()
-                .getFieldsOrThrow("parts")
-                .getListValue()
-                .getValues(0)
-                .getStructValue()
-                .getFieldsOrThrow("text")
-                .getStringValue();
-
-            // Parse the JSON response and convert to Question objects
-            return parseQuestionsFromJson(jsonResponse);
-        }
-    }
+        GenerateContentRequest request = GenerateContentRequest.newBuilder()
+            .setModel(model)
+            .addContents(Content.newBuilder()
+                .setRole("user")
+                .addParts(Part.newBuilder().setText(prompt)))
+            .setGenerationConfig(GenerationConfig.newBuilder()
+                .setTemperature(0.2f)
+                .setMaxOutputTokens(maxOutputTokens(count)))
+            .build();
 
-    private List<Question> parseQuestionsFromJson(String json) {
-        // This is a simplified parser - you might want to use Jackson or Gson in a real implementation
-        List<Question> questions = new ArrayList<>();
-        // Parse the JSON and create Question objects
-        // This is a placeholder - implement actual JSON parsing based on your Question class structure
-        // For now, returning empty list as we'll implement this properly in the next step
-        return questions;
-    }
-    
-    private Long extractUserIdFromAuthHeader(String authHeader) {
-        try {
-            // This is a simplified example - in a real app, extract user ID from JWT
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                // In a real app, decode the JWT to get the user ID
-                // For now, return a default user ID (1) for testing
-                return 1L;
+        ServerStream<GenerateContentResponse> stream =
+            predictionServiceClient.getObject().streamGenerateContentCallable().call(request);
+        Iterator<GenerateContentResponse> responses = stream.iterator();
+        Iterator<String> chunks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return responses.hasNext();
             }
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing authorization token");
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid authorization token");
-        }
+
+            @Override
+            public String next() {
+                return text(responses.next());
+            }
+        };
+        return new StreamedTextReader(chunks, stream::cancel);
     }
+
+    // Text of the first candidate in one streamed chunk; chunks carrying only metadata have none
+    private static String text(GenerateContentResponse response) {
+        if (response.getCandidatesCount() == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Part part : response.getCandidates(0).getContent().getPartsList()) {
+            text.append(part.getText());
+        }
+        return text.toString();
     }
 }
@@ -0,0 +1,281 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.annotation.RateLimited;
+import com.devansh.quizservice.dao.QuizDao;
+import com.devansh.quizservice.model.AIGenerateQuizRequest;
+import com.devansh.quizservice.model.AiQuizJob;
+import com.devansh.quizservice.model.Question;
+import com.devansh.quizservice.model.QuestionWrapper;
+import com.devansh.quizservice.model.Quiz;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs AI quiz generation off the request thread.
+ * <p>
+ * Jobs wait on a bounded queue for one of {@code quiz.ai.jobs.concurrency} workers, so slow
+ * model calls cannot take servlet threads away from other endpoints. A job whose request is
+ * coalesced into another job's model call gives its worker back while it waits. Callers poll
+ * {@link #find} or {@link #subscribe} to a stream that sends each {@code question} as it is
+ * parsed and a final {@code result}. Jobs are kept until they finish and then for
+ * {@code quiz.ai.jobs.retention-ms}, however long they waited in the queue.
+ */
+@Service
+public class AiQuizJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AiQuizJobService.class);
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private QuizDao quizDao;
+
+    @Autowired
+    private QuizSnapshotService quizSnapshotService;
+
+    @Value("${quiz.ai.jobs.concurrency:4}")
+    private int concurrency;
+
+    @Value("${quiz.ai.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${quiz.ai.jobs.retention-ms:600000}")
+    private long retentionMillis;
+
+    @Value("${quiz.ai.jobs.sse-timeout-ms:120000}")
+    private long sseTimeoutMillis;
+
+    private ThreadPoolExecutor executor;
+    private Cache<UUID, Job> jobs;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ai-quiz-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        long retentionNanos = TimeUnit.MILLISECONDS.toNanos(retentionMillis);
+        jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<UUID, Job>() {
+                    @Override
+                    public long expireAfterCreate(UUID id, Job job, long currentTime) {
+                        return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+                    }
+
+                    // Finished jobs are put again, which starts their retention
+                    @Override
+                    public long expireAfterUpdate(UUID id, Job job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID id, Job job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a generation job for {@code userId}. The caller's AI allowance is charged here,
+     * once per job.
+     *
+     * @throws RejectedExecutionException when the queue is full; the charge is then refunded
+     */
+    @RateLimited(refundOn = RejectedExecutionException.class)
+    public AiQuizJob submit(Long userId, AIGenerateQuizRequest request) {
+        Job job = new Job(new AiQuizJob(UUID.randomUUID(), userId, AiQuizJob.Status.QUEUED, null, null,
+                new ArrayList<>(), LocalDateTime.now(), null));
+        UUID id = job.state.getId();
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(id);
+            throw e;
+        }
+        return job.snapshot();
+    }
+
+    public Optional<AiQuizJob> find(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::snapshot);
+    }
+
+    /**
+     * Replay the questions parsed so far, then stream the rest and the final result.
+     */
+    public SseEmitter subscribe(UUID jobId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            emitter.complete();
+            return emitter;
+        }
+        emitter.onCompletion(() -> job.unsubscribe(emitter));
+        emitter.onTimeout(() -> job.unsubscribe(emitter));
+        emitter.onError(error -> job.unsubscribe(emitter));
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    // Generation may be coalesced with other jobs; the rest of the job runs when its share is ready
+    private void run(Job job, AIGenerateQuizRequest request) {
+        job.running();
+        try {
+            aiService.generateQuestions(
+                    request.getCategory(),
+                    request.getDifficultyLevel(),
+                    request.getRoleType(),
+                    request.getYearsOfExperience(),
+                    request.getNumQuestions(),
+                    question -> job.question(wrap(question)))
+                .whenComplete((generated, error) -> {
+                    if (error != null) {
+                        fail(job, error);
+                    } else {
+                        createQuiz(job, request, generated);
+                    }
+                });
+        } catch (RuntimeException e) {
+            fail(job, e);
+        }
+    }
+
+    private void createQuiz(Job job, AIGenerateQuizRequest request, GeneratedQuestionSet generated) {
+        try {
+            List<Integer> questionIds = generated.getQuestionIds();
+            if (questionIds.isEmpty()) {
+                job.finish(AiQuizJob.Status.FAILED, null, "AI did not generate any usable questions");
+            } else {
+                Quiz quiz = new Quiz(request.getQuizTitle(), job.state.getUserId(), questionIds);
+                quizDao.save(quiz);
+                quizSnapshotService.capture(quiz);
+                job.finish(AiQuizJob.Status.SUCCEEDED, quiz.getId(), null);
+            }
+        } catch (RuntimeException e) {
+            fail(job, e);
+            return;
+        }
+        // Retention counts from completion
+        jobs.put(job.state.getId(), job);
+    }
+
+    private void fail(Job job, Throwable error) {
+        log.error("AI quiz job {} failed", job.state.getId(), error);
+        job.finish(AiQuizJob.Status.FAILED, null, "Error creating quiz with AI");
+        jobs.put(job.state.getId(), job);
+    }
+
+    private static QuestionWrapper wrap(Question question) {
+        return new QuestionWrapper(question.getId(), question.getQuestionTitle(), question.getOption1(),
+                question.getOption2(), question.getOption3(), question.getOption4());
+    }
+
+    /**
+     * A job and its event subscribers. All access is synchronized on the job.
+     */
+    private static final class Job {
+        final AiQuizJob state;
+        final List<SseEmitter> subscribers = new ArrayList<>();
+
+        Job(AiQuizJob state) {
+            this.state = state;
+        }
+
+        synchronized AiQuizJob snapshot() {
+            return new AiQuizJob(state.getId(), state.getUserId(), state.getStatus(), state.getQuizId(),
+                    state.getError(), List.copyOf(state.getQuestions()), state.getSubmittedAt(), state.getFinishedAt());
+        }
+
+        synchronized boolean isFinished() {
+            return state.getFinishedAt() != null;
+        }
+
+        synchronized void running() {
+            state.setStatus(AiQuizJob.Status.RUNNING);
+        }
+
+        synchronized void question(QuestionWrapper question) {
+            state.getQuestions().add(question);
+            // Iterate a copy: completing an emitter may call back into unsubscribe
+            for (SseEmitter emitter : List.copyOf(subscribers)) {
+                if (!send(emitter, "question", question)) {
+                    subscribers.remove(emitter);
+                }
+            }
+        }
+
+        synchronized void finish(AiQuizJob.Status status, Integer quizId, String error) {
+            state.setStatus(status);
+            state.setQuizId(quizId);
+            state.setError(error);
+            state.setFinishedAt(LocalDateTime.now());
+            AiQuizJob result = snapshot();
+            for (SseEmitter emitter : List.copyOf(subscribers)) {
+                if (send(emitter, "result", result)) {
+                    emitter.complete();
+                }
+            }
+            subscribers.clear();
+        }
+
+        synchronized void subscribe(SseEmitter emitter) {
+            for (QuestionWrapper question : state.getQuestions()) {
+                if (!send(emitter, "question", question)) {
+                    return;
+                }
+            }
+            if (state.getFinishedAt() != null) {
+                if (send(emitter, "result", snapshot())) {
+                    emitter.complete();
+                }
+                return;
+            }
+            subscribers.add(emitter);
+        }
+
+        synchronized void unsubscribe(SseEmitter emitter) {
+            subscribers.remove(emitter);
+        }
+
+        private static boolean send(SseEmitter emitter, String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
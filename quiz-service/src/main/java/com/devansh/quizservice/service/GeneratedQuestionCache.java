@@ -0,0 +1,82 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content-addressed cache of AI-generated question sets. Entries are keyed by a SHA-256
+ * hash of the normalized prompt parameters, expire after {@code quiz.ai.cache-ttl-ms} and
+ * are bounded by their total number of questions.
+ */
+@Component
+public class GeneratedQuestionCache implements MeterBinder {
+
+    private final Cache<String, GeneratedQuestionSet> cache;
+
+    public GeneratedQuestionCache(
+            @Value("${quiz.ai.cache-ttl-ms:3600000}") long ttlMillis,
+            @Value("${quiz.ai.cache-max-questions:20000}") long maxQuestions) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumWeight(maxQuestions)
+                .<String, GeneratedQuestionSet>weigher((key, set) -> Math.max(1, set.getQuestions().size()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cache key for a generation request. Case and surrounding whitespace are ignored;
+     * {@code model} and {@code promptVersion} keep results of different prompts apart.
+     */
+    public static String key(String model, int promptVersion, String category, String difficulty,
+                             String roleType, int yearsOfExp, int count) {
+        String normalized = String.join("\u0000",
+                model, String.valueOf(promptVersion), normalize(category), normalize(difficulty),
+                normalize(roleType), String.valueOf(yearsOfExp), String.valueOf(count));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public GeneratedQuestionSet get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Cache a stored result. Sets with fewer than the {@code count} questions the key was
+     * built for are returned but not cached, so a short run is not served again for the whole TTL.
+     */
+    public GeneratedQuestionSet put(String key, int count, List<Question> questions, List<Integer> questionIds) {
+        GeneratedQuestionSet set = new GeneratedQuestionSet(key, questions, questionIds);
+        if (questionIds.size() >= Math.max(1, count)) {
+            cache.put(key, set);
+        }
+        return set;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "quiz.ai.questions");
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
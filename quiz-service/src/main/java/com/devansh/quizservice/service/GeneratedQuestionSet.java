@@ -0,0 +1,37 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.model.Question;
+
+import java.util.List;
+
+/**
+ * Questions generated for one set of prompt parameters, together with their ids in
+ * question-service. A cached set is stored once and reused by later quizzes.
+ */
+public final class GeneratedQuestionSet {
+
+    private final String key;
+    private final List<Question> questions;
+    private final List<Integer> questionIds;
+
+    GeneratedQuestionSet(String key, List<Question> questions, List<Integer> questionIds) {
+        this.key = key;
+        this.questions = List.copyOf(questions);
+        this.questionIds = List.copyOf(questionIds);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Ids of the questions question-service accepted, in generation order.
+     */
+    public List<Integer> getQuestionIds() {
+        return questionIds;
+    }
+}
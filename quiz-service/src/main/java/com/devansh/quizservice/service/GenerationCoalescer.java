@@ -0,0 +1,133 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.model.Question;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups compatible AI generation requests that arrive within a short window so they are
+ * served by one model call.
+ * <p>
+ * The first request in a group leads it: its thread waits until the window closes or the
+ * group reaches {@code maxQuestions}, then runs the whole group. Requests that join an open
+ * group return at once with a future the leader completes, so they do not hold a worker
+ * while they wait.
+ */
+final class GenerationCoalescer {
+
+    interface BatchRunner {
+        void run(List<Request> requests) throws Exception;
+    }
+
+    /**
+     * One caller's share of a group: the questions it still needs and where they go.
+     */
+    static final class Request {
+        final String cacheKey;
+        final String category;
+        final String difficulty;
+        final String roleType;
+        final int yearsOfExp;
+        final int count;
+        final Consumer<Question> onQuestion;
+        final QuestionBatchWriter writer;
+        final List<Question> questions = new ArrayList<>();
+        final CompletableFuture<GeneratedQuestionSet> result = new CompletableFuture<>();
+
+        Request(String cacheKey, String category, String difficulty, String roleType, int yearsOfExp, int count,
+                Consumer<Question> onQuestion, QuestionBatchWriter writer) {
+            this.cacheKey = cacheKey;
+            this.category = category;
+            this.difficulty = difficulty;
+            this.roleType = roleType;
+            this.yearsOfExp = yearsOfExp;
+            this.count = count;
+            this.onQuestion = onQuestion;
+            this.writer = writer;
+        }
+
+        boolean isFull() {
+            return questions.size() >= count;
+        }
+
+        void accept(Question question) {
+            questions.add(question);
+            writer.add(question);
+            onQuestion.accept(question);
+        }
+    }
+
+    private static final class Group {
+        final List<Request> requests = new ArrayList<>();
+        final CountDownLatch full = new CountDownLatch(1);
+        int questions;
+    }
+
+    private final BatchRunner runner;
+    private final long windowNanos;
+    private final int maxQuestions;
+
+    // Groups still accepting requests, by compatibility bucket; guarded by itself
+    private final Map<String, Group> open = new HashMap<>();
+
+    GenerationCoalescer(BatchRunner runner, long windowMillis, int maxQuestions) {
+        this.runner = runner;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxQuestions = maxQuestions;
+    }
+
+    /**
+     * Add {@code request} to the open group for {@code bucket}, or start one. Returns once the
+     * request is queued, or, for a group leader, once the whole group has been served.
+     */
+    CompletableFuture<GeneratedQuestionSet> submit(String bucket, Request request) {
+        Group group;
+        boolean leader = false;
+        synchronized (open) {
+            group = open.get(bucket);
+            if (group == null || group.questions + request.count > maxQuestions) {
+                group = new Group();
+                open.put(bucket, group);
+                leader = true;
+            }
+            group.requests.add(request);
+            group.questions += request.count;
+            if (group.questions >= maxQuestions) {
+                open.remove(bucket, group);
+                group.full.countDown();
+            }
+        }
+        if (leader) {
+            lead(bucket, group);
+        }
+        return request.result;
+    }
+
+    private void lead(String bucket, Group group) {
+        try {
+            group.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Request> requests;
+        synchronized (open) {
+            open.remove(bucket, group);
+            requests = List.copyOf(group.requests);
+        }
+        try {
+            runner.run(requests);
+        } catch (Exception e) {
+            requests.forEach(request -> request.result.completeExceptionally(e));
+        }
+        // A runner that returned normally has completed every request; this only catches omissions
+        requests.forEach(request -> request.result.completeExceptionally(
+                new IllegalStateException("Generation ended without a result")));
+    }
+}
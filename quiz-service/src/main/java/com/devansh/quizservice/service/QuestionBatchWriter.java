@@ -0,0 +1,102 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.client.Futures;
+import com.devansh.quizservice.client.QuestionClient;
+import com.devansh.quizservice.dto.QuestionImportReport;
+import com.devansh.quizservice.model.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores generated questions in question-service while the rest are still being parsed.
+ * Each full batch is sent as soon as it fills; {@link #finish} sends the remainder and
+ * waits for every batch. Not thread-safe: one writer per generation.
+ */
+final class QuestionBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionBatchWriter.class);
+
+    private final QuestionClient questionClient;
+    private final int batchSize;
+    private final List<Question> buffer = new ArrayList<>();
+    private final List<CompletableFuture<QuestionImportReport>> sent = new ArrayList<>();
+    private final List<Integer> sentSizes = new ArrayList<>();
+    private int written;
+
+    QuestionBatchWriter(QuestionClient questionClient, int batchSize) {
+        this.questionClient = questionClient;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    void add(Question question) {
+        buffer.add(question);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Distinct ids of the stored questions, in the order they were added. A question that is
+     * a near-duplicate of one already in the bank is replaced by that question's id; other
+     * questions rejected by question-service are left out.
+     */
+    List<Integer> finish() {
+        flush();
+        Set<Integer> ids = new LinkedHashSet<>();
+        long rejected = 0;
+        long reused = 0;
+        for (int i = 0; i < sent.size(); i++) {
+            QuestionImportReport report = Futures.await(sent.get(i));
+            Map<Long, Integer> duplicateOf = new HashMap<>();
+            for (QuestionImportReport.RowError error : report.getErrors()) {
+                duplicateOf.put(error.getRow(), error.getDuplicateOf());
+            }
+            if (duplicateOf.size() == report.getRejected()) {
+                Iterator<Integer> inserted = report.getInsertedIds().iterator();
+                for (long row = 1; row <= sentSizes.get(i); row++) {
+                    if (!duplicateOf.containsKey(row)) {
+                        if (inserted.hasNext()) {
+                            ids.add(inserted.next());
+                        }
+                    } else if (duplicateOf.get(row) != null) {
+                        ids.add(duplicateOf.get(row));
+                        reused++;
+                    }
+                }
+            } else {
+                // Not every rejected row was reported, so rows cannot be matched up; keep what is known
+                ids.addAll(report.getInsertedIds());
+                for (Integer duplicate : duplicateOf.values()) {
+                    if (duplicate != null) {
+                        ids.add(duplicate);
+                        reused++;
+                    }
+                }
+            }
+            rejected += report.getRejected();
+        }
+        if (rejected > reused) {
+            log.warn("question-service rejected {} of {} generated questions", rejected - reused, written);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        sent.add(questionClient.addQuestions(List.copyOf(buffer)));
+        sentSizes.add(buffer.size());
+        written += buffer.size();
+        buffer.clear();
+    }
+}
@@ -0,0 +1,217 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.model.Question;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads questions out of model output one at a time.
+ * <p>
+ * Anything before the first JSON array of objects (prose, a {@code ```json} fence) is skipped,
+ * and reading stops at the end of that array, so trailing text is never looked at. Each
+ * element is bound straight to a {@link Question}, validated, and handed to the caller
+ * before the next one is read. Comments, single quotes and trailing commas are accepted;
+ * output that is cut off or malformed ends the parse with the questions read so far.
+ */
+@Component
+public class QuestionStreamParser {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionStreamParser.class);
+
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    // question-service stores category and difficulty as VARCHAR(50)
+    private static final int MAX_NAME_LENGTH = 50;
+
+    public record Result(int accepted, int rejected) {
+    }
+
+    private final ObjectReader questionReader;
+
+    public QuestionStreamParser() {
+        JsonFactory factory = JsonFactory.builder()
+                .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+                .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+                .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+                .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+                .build();
+        this.questionReader = new ObjectMapper(factory)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readerFor(Question.class);
+    }
+
+    /**
+     * Parse {@code in}, passing every valid question to {@code onQuestion}. Questions without
+     * a category or difficulty get {@code category} and {@code difficulty}.
+     */
+    public Result parse(Reader in, String category, String difficulty, Consumer<Question> onQuestion) throws IOException {
+        PushbackReader source = new PushbackReader(in, 2);
+        if (!skipToArray(source)) {
+            log.warn("AI response contained no JSON array of questions");
+            return new Result(0, 0);
+        }
+
+        int accepted = 0;
+        int rejected = 0;
+        try (JsonParser parser = questionReader.getFactory().createParser(source)) {
+            parser.nextToken();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    rejected++;
+                    continue;
+                }
+                Question question = questionReader.readValue(parser);
+                String error = normalize(question, category, difficulty);
+                if (error != null) {
+                    log.debug("Rejected generated question: {}", error);
+                    rejected++;
+                    continue;
+                }
+                onQuestion.accept(question);
+                accepted++;
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("AI response ended with malformed or truncated JSON after {} questions: {}",
+                    accepted + rejected, e.getOriginalMessage());
+        }
+        return new Result(accepted, rejected);
+    }
+
+    // Leaves the reader positioned at the first '[' whose next non-blank character is '{'
+    private static boolean skipToArray(PushbackReader source) throws IOException {
+        int c;
+        while ((c = source.read()) != -1) {
+            if (c != '[') {
+                continue;
+            }
+            int next = skipBlank(source);
+            if (next == '{') {
+                source.unread(next);
+                source.unread('[');
+                return true;
+            }
+            if (next == '[') {
+                source.unread(next);
+            }
+        }
+        return false;
+    }
+
+    // Skips whitespace and comments, returning the first character after them
+    private static int skipBlank(PushbackReader source) throws IOException {
+        while (true) {
+            int c = source.read();
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c != '/') {
+                return c;
+            }
+            int next = source.read();
+            if (next == '/') {
+                while ((c = source.read()) != -1 && c != '\n') {
+                    // skip to the end of the line
+                }
+            } else if (next == '*') {
+                int previous = 0;
+                while ((c = source.read()) != -1 && !(previous == '*' && c == '/')) {
+                    previous = c;
+                }
+            } else {
+                if (next != -1) {
+                    source.unread(next);
+                }
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Trim fields, fill defaults and resolve the answer to the text of an option.
+     *
+     * @return why the question cannot be used, or null if it is valid
+     */
+    private static String normalize(Question question, String category, String difficulty) {
+        question.setId(null);
+        question.setQuestionTitle(trim(question.getQuestionTitle()));
+        question.setOption1(trim(question.getOption1()));
+        question.setOption2(trim(question.getOption2()));
+        question.setOption3(trim(question.getOption3()));
+        question.setOption4(trim(question.getOption4()));
+        question.setCategory(orDefault(trim(question.getCategory()), category));
+        question.setDifficultylevel(orDefault(trim(question.getDifficultylevel()), difficulty));
+        question.setRightAnswer(answerText(question));
+
+        String[] names = {"questionTitle", "option1", "option2", "option3", "option4", "rightAnswer", "difficultyLevel", "category"};
+        String[] values = {
+                question.getQuestionTitle(), question.getOption1(), question.getOption2(), question.getOption3(),
+                question.getOption4(), question.getRightAnswer(), question.getDifficultylevel(), question.getCategory()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null || values[i].isEmpty()) {
+                return names[i] + " is missing";
+            }
+            int maxLength = i >= 6 ? MAX_NAME_LENGTH : MAX_FIELD_LENGTH;
+            if (values[i].length() > maxLength) {
+                return names[i] + " is longer than " + maxLength + " characters";
+            }
+        }
+
+        Set<String> options = new HashSet<>();
+        for (int i = 1; i <= 4; i++) {
+            options.add(values[i].toLowerCase(Locale.ROOT));
+        }
+        if (options.size() < 4) {
+            return "options are not distinct";
+        }
+        for (int i = 1; i <= 4; i++) {
+            if (values[i].equalsIgnoreCase(question.getRightAnswer())) {
+                question.setRightAnswer(values[i]);
+                return null;
+            }
+        }
+        return "rightAnswer does not match an option";
+    }
+
+    // question-service stores the text of the right option; the model answers 1-4 or A-D
+    private static String answerText(Question question) {
+        String answer = trim(question.getRightAnswer());
+        if (answer == null) {
+            return null;
+        }
+        return switch (answer.toUpperCase(Locale.ROOT)) {
+            case "1", "A" -> question.getOption1();
+            case "2", "B" -> question.getOption2();
+            case "3", "C" -> question.getOption3();
+            case "4", "D" -> question.getOption4();
+            default -> answer;
+        };
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.isEmpty() ? trim(fallback) : value;
+    }
+}
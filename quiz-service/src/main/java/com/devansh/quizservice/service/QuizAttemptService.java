@@ -0,0 +1,484 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.client.Futures;
+import com.devansh.quizservice.client.QuestionClient;
+import com.devansh.quizservice.dao.QuizAttemptDao;
+import com.devansh.quizservice.model.QuizAttempt;
+import com.devansh.quizservice.model.Response;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts quiz submissions without grading them on the request thread.
+ * <p>
+ * Submissions go onto a bounded queue. A small pool of workers drains it in batches,
+ * records the batch as {@code PENDING} rows, grades every attempt in it with one
+ * {@code question/getScores} call, and completes the rows with one batched write. Callers
+ * poll {@link #find} or {@link #subscribe} for the result.
+ * <p>
+ * Attempts still only in memory at shutdown are written as {@code PENDING}. Rows left
+ * {@code PENDING} for {@code quiz.attempts.recover-after-ms}, by a restart or a crash, are
+ * queued again by any instance, so an accepted attempt is always graded eventually.
+ * <p>
+ * Grading and storage failures are retried with exponential backoff. A batch insert that
+ * fails is retried row by row, so one bad row does not hold back the others. An attempt
+ * that still cannot be graded is stored as {@code FAILED}; if even that row cannot be
+ * written, the outcome is kept in memory for {@code quiz.attempts.unstored-retention-ms}.
+ */
+@Service
+public class QuizAttemptService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizAttemptService.class);
+
+    @Autowired
+    private QuizAttemptDao quizAttemptDao;
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Value("${quiz.attempts.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quiz.attempts.workers:2}")
+    private int workers;
+
+    @Value("${quiz.attempts.batch-size:200}")
+    private int batchSize;
+
+    @Value("${quiz.attempts.batch-wait-ms:50}")
+    private long batchWaitMillis;
+
+    @Value("${quiz.attempts.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${quiz.attempts.retry-backoff-ms:500}")
+    private long retryBackoffMillis;
+
+    @Value("${quiz.attempts.retry-backoff-max-ms:30000}")
+    private long retryBackoffMaxMillis;
+
+    @Value("${quiz.attempts.unstored-retention-ms:600000}")
+    private long unstoredRetentionMillis;
+
+    @Value("${quiz.attempts.sse-timeout-ms:60000}")
+    private long sseTimeoutMillis;
+
+    @Value("${quiz.attempts.recover-after-ms:300000}")
+    private long recoverAfterMillis;
+
+    private BlockingQueue<Pending> queue;
+    private ExecutorService executor;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    // Final outcomes that could not be written to quiz_attempts
+    private Cache<UUID, QuizAttempt> unstored;
+
+    private static final class Pending {
+        final QuizAttempt attempt;
+        int failures;
+        // Whether a PENDING row has been written
+        volatile boolean persisted;
+        // Graded or failed outcome waiting to be stored; null until graded
+        QuizAttempt result;
+
+        Pending(QuizAttempt attempt) {
+            this.attempt = attempt;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "attempt-grader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attempt-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        unstored = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(unstoredRetentionMillis))
+                .build();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        // Attempts waiting for a retry already have PENDING rows, which recovery picks up
+        retryScheduler.shutdownNow();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<Pending> unsaved = new ArrayList<>();
+        for (Pending entry : pending.values()) {
+            if (!entry.persisted) {
+                unsaved.add(entry);
+            }
+        }
+        if (!unsaved.isEmpty() && !persistPending(unsaved)) {
+            log.error("{} accepted attempts were not stored before shutdown", unsaved.size());
+        }
+    }
+
+    /**
+     * Queue attempts left PENDING in the database by an instance that stopped before grading them.
+     */
+    @Scheduled(initialDelayString = "${quiz.attempts.recover-interval-ms:60000}",
+            fixedDelayString = "${quiz.attempts.recover-interval-ms:60000}")
+    public void recoverPending() {
+        if (!running) {
+            return;
+        }
+        List<QuizAttempt> stale;
+        try {
+            stale = quizAttemptDao.findPendingSubmittedBefore(
+                    LocalDateTime.now().minus(Duration.ofMillis(recoverAfterMillis)), batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not look up pending attempts to recover", e);
+            return;
+        }
+        int recovered = 0;
+        for (QuizAttempt attempt : stale) {
+            Pending entry = new Pending(attempt);
+            entry.persisted = true;
+            if (pending.putIfAbsent(attempt.getId(), entry) != null) {
+                // Still being handled here
+                continue;
+            }
+            if (!queue.offer(entry)) {
+                pending.remove(attempt.getId());
+                break;
+            }
+            recovered++;
+        }
+        if (recovered > 0) {
+            log.info("Queued {} pending attempts for grading again", recovered);
+        }
+    }
+
+    /**
+     * Queue an attempt for grading. {@code total} is the number of distinct questions in the
+     * quiz; {@code responses} holds only the answered ones. Returns empty when the queue is full.
+     */
+    public Optional<QuizAttempt> submit(Integer quizId, Long userId, int total, List<Response> responses) {
+        QuizAttempt attempt = new QuizAttempt(UUID.randomUUID(), quizId, userId, QuizAttempt.Status.PENDING,
+                null, total, LocalDateTime.now(), null, responses);
+        Pending entry = new Pending(attempt);
+        pending.put(attempt.getId(), entry);
+        if (!queue.offer(entry)) {
+            pending.remove(attempt.getId());
+            return Optional.empty();
+        }
+        return Optional.of(attempt);
+    }
+
+    /**
+     * The attempt as it currently stands: pending in memory, or graded in the database.
+     */
+    public Optional<QuizAttempt> find(UUID attemptId) {
+        Pending entry = pending.get(attemptId);
+        if (entry != null) {
+            return Optional.of(entry.attempt);
+        }
+        return finished(attemptId);
+    }
+
+    private Optional<QuizAttempt> finished(UUID attemptId) {
+        QuizAttempt attempt = unstored.getIfPresent(attemptId);
+        return attempt != null ? Optional.of(attempt) : quizAttemptDao.findById(attemptId);
+    }
+
+    /**
+     * Push the graded attempt to the caller as a single {@code result} event, then complete.
+     */
+    public SseEmitter subscribe(QuizAttempt attempt) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        UUID id = attempt.getId();
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(id, key -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable unsubscribe = () -> {
+            emitters.remove(emitter);
+            if (emitters.isEmpty()) {
+                subscribers.remove(id, emitters);
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        // Graded between the caller's lookup and the subscription
+        if (!pending.containsKey(id)) {
+            finished(id)
+                    .filter(graded -> graded.getStatus() != QuizAttempt.Status.PENDING)
+                    .ifPresent(graded -> publish(graded, List.of(emitter)));
+        }
+        return emitter;
+    }
+
+    private void work() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWaitMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Attempt grading round failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Entries requeued after a storage failure are already graded and only need storing
+    private void process(List<Pending> batch) {
+        List<Pending> unsaved = new ArrayList<>();
+        for (Pending entry : batch) {
+            if (!entry.persisted) {
+                unsaved.add(entry);
+            }
+        }
+        if (!unsaved.isEmpty()) {
+            persistPending(unsaved);
+        }
+        List<Pending> ungraded = new ArrayList<>();
+        for (Pending entry : batch) {
+            if (entry.result == null) {
+                ungraded.add(entry);
+            }
+        }
+        if (!ungraded.isEmpty()) {
+            grade(ungraded);
+        }
+        List<Pending> ready = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            if (entry.result != null) {
+                ready.add(entry);
+            }
+        }
+        if (!ready.isEmpty()) {
+            store(ready);
+        }
+    }
+
+    private void grade(List<Pending> batch) {
+        List<List<Response>> submissions = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            submissions.add(entry.attempt.getResponses());
+        }
+
+        List<Integer> scores;
+        try {
+            scores = Futures.await(questionClient.getScores(submissions));
+            if (scores == null || scores.size() != batch.size()) {
+                throw new IllegalStateException("question-service returned " +
+                        (scores == null ? "no" : scores.size()) + " scores for " + batch.size() + " attempts");
+            }
+        } catch (Exception e) {
+            log.warn("Could not grade {} attempts, will retry", batch.size(), e);
+            LocalDateTime now = LocalDateTime.now();
+            for (Pending entry : batch) {
+                if (!retryLater(entry)) {
+                    entry.result = copy(entry.attempt, QuizAttempt.Status.FAILED, null, now);
+                }
+            }
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending entry = batch.get(i);
+            entry.result = copy(entry.attempt, QuizAttempt.Status.GRADED, scores.get(i), now);
+        }
+    }
+
+    /**
+     * Record the attempts as PENDING so they outlive this instance. A failure is only logged:
+     * grading goes ahead, and stop() tries again for whatever is left.
+     */
+    private boolean persistPending(List<Pending> entries) {
+        List<QuizAttempt> attempts = new ArrayList<>(entries.size());
+        for (Pending entry : entries) {
+            attempts.add(entry.attempt);
+        }
+        try {
+            quizAttemptDao.insertPending(attempts);
+            entries.forEach(entry -> entry.persisted = true);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not record {} pending attempts", entries.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Write the outcomes in one batch; if that fails, row by row so a bad row only affects itself.
+     */
+    private void store(List<Pending> entries) {
+        List<QuizAttempt> results = new ArrayList<>(entries.size());
+        for (Pending entry : entries) {
+            results.add(entry.result);
+        }
+        try {
+            quizAttemptDao.insertBatch(results);
+            entries.forEach(entry -> finish(entry, entry.result));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} attempts in one batch, storing them one by one", entries.size(), e);
+        }
+        for (Pending entry : entries) {
+            storeOne(entry);
+        }
+    }
+
+    private void storeOne(Pending entry) {
+        try {
+            quizAttemptDao.insertBatch(List.of(entry.result));
+            finish(entry, entry.result);
+        } catch (DataIntegrityViolationException e) {
+            // Retrying the same row cannot succeed
+            storeFailed(entry, e);
+        } catch (RuntimeException e) {
+            if (!retryLater(entry)) {
+                storeFailed(entry, e);
+            }
+        }
+    }
+
+    /**
+     * Record the attempt as FAILED. When even that row cannot be written (for example because
+     * the quiz was deleted meanwhile), keep the outcome in memory so the attempt is still found.
+     */
+    private void storeFailed(Pending entry, Exception cause) {
+        QuizAttempt failed = copy(entry.attempt, QuizAttempt.Status.FAILED, null, LocalDateTime.now());
+        if (entry.result == null || entry.result.getStatus() != QuizAttempt.Status.FAILED) {
+            try {
+                quizAttemptDao.insertBatch(List.of(failed));
+                finish(entry, failed);
+                return;
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        log.error("Could not store attempt {}; keeping its outcome in memory", entry.attempt.getId(), cause);
+        unstored.put(failed.getId(), failed);
+        finish(entry, failed);
+    }
+
+    /**
+     * Requeue the entry after an exponential backoff with jitter.
+     *
+     * @return false once the entry has used up its retries
+     */
+    private boolean retryLater(Pending entry) {
+        entry.failures++;
+        if (entry.failures > maxRetries || !running) {
+            return false;
+        }
+        long backoff = Math.min(retryBackoffMaxMillis, retryBackoffMillis << Math.min(entry.failures - 1, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        try {
+            retryScheduler.schedule(() -> requeue(entry), delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void requeue(Pending entry) {
+        if (queue.offer(entry)) {
+            return;
+        }
+        // Queue full: give up on this attempt rather than block the retry thread
+        if (entry.result == null) {
+            entry.result = copy(entry.attempt, QuizAttempt.Status.FAILED, null, LocalDateTime.now());
+        }
+        storeOne(entry);
+    }
+
+    private void finish(Pending entry, QuizAttempt outcome) {
+        UUID id = entry.attempt.getId();
+        pending.remove(id);
+        List<SseEmitter> emitters = subscribers.remove(id);
+        if (emitters != null) {
+            publish(outcome, emitters);
+        }
+    }
+
+    private static void publish(QuizAttempt attempt, List<SseEmitter> emitters) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(attempt));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static QuizAttempt copy(QuizAttempt attempt, QuizAttempt.Status status, Integer score, LocalDateTime gradedAt) {
+        return new QuizAttempt(attempt.getId(), attempt.getQuizId(), attempt.getUserId(), status,
+                score, attempt.getTotal(), attempt.getSubmittedAt(), gradedAt, attempt.getResponses());
+    }
+}
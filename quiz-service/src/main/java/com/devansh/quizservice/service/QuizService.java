@@ -1,28 +1,36 @@
 package com.devansh.quizservice.service;
 
+import com.devansh.quizservice.client.Futures;
+import com.devansh.quizservice.client.QuestionClient;
 import com.devansh.quizservice.dao.QuizDao;
 import com.devansh.quizservice.exception.ResourceNotFoundException;
-import com.devansh.quizservice.feign.QuizInterface;
-import com.devansh.quizservice.feign.UserInterface;
 import com.devansh.quizservice.dto.QuizResponseDto;
+import com.devansh.quizservice.exception.RateLimitExceededException;
 import com.devansh.quizservice.model.QuestionWrapper;
 import com.devansh.quizservice.model.Quiz;
+import com.devansh.quizservice.model.QuizAttempt;
 import com.devansh.quizservice.model.QuizDto;
 import com.devansh.quizservice.model.Response;
 import com.devansh.quizservice.model.AIGenerateQuizRequest;
+import com.devansh.quizservice.model.AiQuizJob;
+import com.devansh.quizservice.security.CallerResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import feign.FeignException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,38 +40,47 @@ public class QuizService {
     private QuizDao quizDao;
 
     @Autowired
-    private QuizInterface quizInterface;
+    private QuestionClient questionClient;
 
     @Autowired
-    private UserInterface userInterface;
+    private UserExistenceCache userExistenceCache;
 
     @Autowired
-    private AIService aiService;
+    private CallerResolver callerResolver;
+
+    @Autowired
+    private AiQuizJobService aiQuizJobService;
 
     @Autowired
     private ObjectMapper objectMapper;
-    
+
     @Autowired
-    private RateLimiterService rateLimiterService;
-    
+    private QuizSnapshotService quizSnapshotService;
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Value("${quiz.ai.max-questions:50}")
+    private int maxAiQuestions;
 
     public ResponseEntity<String> createQuiz(QuizDto quizDto, String authHeader) {
         try {
             // Extract user ID from JWT token
-            Long userId = getUserIdFromAuthHeader(authHeader);
+            Long userId = callerResolver.resolve(authHeader).userId();
             
-            // Validate user exists
-            validateUserExists(userId, authHeader);
-            
-            // Get questions for the quiz
-            List<Integer> questions = quizInterface.getQuestionsForQuiz(
+            // Validate the user and pick the questions concurrently
+            CompletableFuture<Void> userExists = userExistenceCache.requireUser(userId, authHeader);
+            CompletableFuture<List<Integer>> selected = questionClient.getQuestionsForQuiz(
                 quizDto.getCategoryName(), 
                 quizDto.getNumQuestions()
-            ).getBody();
+            );
+            Futures.await(userExists);
+            List<Integer> questions = Futures.await(selected);
             
             // Create and save the quiz
             Quiz quiz = new Quiz(quizDto.getTitle(), userId, questions);
             quizDao.save(quiz);
+            quizSnapshotService.capture(quiz);
 
             return new ResponseEntity<>("Quiz created successfully", HttpStatus.CREATED);
             
@@ -76,6 +93,65 @@ public class QuizService {
         }
     }
 
+    public ResponseEntity<?> createQuizWithAI(AIGenerateQuizRequest request, String authHeader) {
+        try {
+            if (request.getNumQuestions() < 1 || request.getNumQuestions() > maxAiQuestions) {
+                return new ResponseEntity<>("numQuestions must be between 1 and " + maxAiQuestions,
+                    HttpStatus.BAD_REQUEST);
+            }
+            Long userId = callerResolver.resolve(authHeader).userId();
+            Futures.await(userExistenceCache.requireUser(userId, authHeader));
+
+            AiQuizJob job = aiQuizJobService.submit(userId, request);
+            return ResponseEntity
+                .accepted()
+                .location(URI.create("/quiz/ai-jobs/" + job.getId()))
+                .body(job);
+
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body("Too many AI quizzes are being generated");
+        } catch (RateLimitExceededException e) {
+            throw e;
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error creating quiz with AI", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public ResponseEntity<?> getAiJob(UUID jobId, String authHeader) {
+        try {
+            return new ResponseEntity<>(findOwnAiJob(jobId, authHeader), HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    public ResponseEntity<?> subscribeToAiJob(UUID jobId, String authHeader) {
+        try {
+            AiQuizJob job = findOwnAiJob(jobId, authHeader);
+            return new ResponseEntity<>(aiQuizJobService.subscribe(job.getId()), HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    private AiQuizJob findOwnAiJob(UUID jobId, String authHeader) {
+        Long userId = callerResolver.resolve(authHeader).userId();
+        return aiQuizJobService.find(jobId)
+            .filter(job -> job.getUserId().equals(userId))
+            .orElseThrow(() -> new ResourceNotFoundException("AI job", "id", jobId));
+    }
+
     public ResponseEntity<?> getQuizQuestions(Integer id, String authHeader) {
         try {
             // Find the quiz
@@ -83,19 +159,14 @@ public class QuizService {
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", id));
                 
             // Extract user ID from JWT token
-            Long userId = getUserIdFromAuthHeader(authHeader);
+            Long userId = callerResolver.resolve(authHeader).userId();
             
             // Check if the user is the creator of the quiz
             if (!quiz.getUserId().equals(userId)) {
                 return new ResponseEntity<>("Unauthorized access to quiz", HttpStatus.FORBIDDEN);
             }
             
-            List<Integer> questionIds = quiz.getQuestionIds();
-            if (questionIds == null || questionIds.isEmpty()) {
-                return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
-            }
-            ResponseEntity<List<QuestionWrapper>> questions = quizInterface.getQuestionsFromId(questionIds);
-            return questions;
+            return new ResponseEntity<>(quizSnapshotService.getQuestions(quiz), HttpStatus.OK);
             
         } catch (ResourceNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
@@ -107,36 +178,121 @@ public class QuizService {
 
     }
 
-    public ResponseEntity<Integer> calculateResult(Integer id, List<Response> responses, String authHeader) {
+    public ResponseEntity<?> submitQuiz(Integer id, List<Response> responses, String authHeader) {
         try {
-            // Find the quiz
             Quiz quiz = quizDao.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", id));
-                
-            // Extract user ID from JWT token
-            Long userId = getUserIdFromAuthHeader(authHeader);
-            
-            // Check if the user is the creator of the quiz
+
+            Long userId = callerResolver.resolve(authHeader).userId();
             if (!quiz.getUserId().equals(userId)) {
-                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+                return new ResponseEntity<>("Unauthorized access to quiz", HttpStatus.FORBIDDEN);
             }
-            
-            List<Integer> questionIds = quiz.getQuestionIds();
-            int right = 0;
-            int i = 0;
-            for(Response response : responses){
-                if(response.getResponse().equals(questionIds.get(i)))
-                    right++;
-                i++;
+
+            // Only the first answer to each of this quiz's questions counts
+            Set<Integer> questionIds = new HashSet<>(quiz.getQuestionIds());
+            int total = questionIds.size();
+            List<Response> answers = new ArrayList<>();
+            for (Response response : responses) {
+                if (response.getId() != null && questionIds.remove(response.getId())) {
+                    answers.add(response);
+                }
             }
-            return new ResponseEntity<>(right, HttpStatus.OK);
-            
+
+            return quizAttemptService.submit(quiz.getId(), userId, total, answers)
+                .<ResponseEntity<?>>map(attempt -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/quiz/attempts/" + attempt.getId()))
+                    .body(attempt))
+                .orElseGet(() -> ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many submissions are waiting to be graded"));
+
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error submitting quiz", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public ResponseEntity<?> getAttempt(UUID attemptId, String authHeader) {
+        try {
+            QuizAttempt attempt = findOwnAttempt(attemptId, authHeader);
+            return new ResponseEntity<>(attempt, HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    public ResponseEntity<?> subscribeToAttempt(UUID attemptId, String authHeader) {
+        try {
+            QuizAttempt attempt = findOwnAttempt(attemptId, authHeader);
+            return new ResponseEntity<>(quizAttemptService.subscribe(attempt), HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    // Someone else's attempt is reported as missing rather than forbidden
+    private QuizAttempt findOwnAttempt(UUID attemptId, String authHeader) {
+        Long userId = callerResolver.resolve(authHeader).userId();
+        return quizAttemptService.find(attemptId)
+            .filter(attempt -> attempt.getUserId().equals(userId))
+            .orElseThrow(() -> new ResourceNotFoundException("Attempt", "id", attemptId));
+    }
+
+    public ResponseEntity<?> getUserQuizzes(String authHeader, boolean includeQuestions) {
+        try {
+            Long userId = callerResolver.resolve(authHeader).userId();
+            List<Quiz> quizzes = quizDao.findByUserIdOrderByCreatedAtDesc(userId);
+
+            if (!includeQuestions) {
+                List<QuizResponseDto> summaries = quizzes.stream()
+                    .map(quiz -> new QuizResponseDto(quiz.getId(), quiz.getTitle(), quiz.getCreatedAt()))
+                    .collect(Collectors.toList());
+                return new ResponseEntity<>(summaries, HttpStatus.OK);
+            }
+
+            Map<Integer, List<QuestionWrapper>> questions = quizSnapshotService.getQuestions(quizzes);
+            List<QuizResponseDto> result = new ArrayList<>(quizzes.size());
+            for (Quiz quiz : quizzes) {
+                result.add(new QuizResponseDto(quiz.getId(), quiz.getTitle(), quiz.getCreatedAt(),
+                    questions.get(quiz.getId())));
+            }
+            return new ResponseEntity<>(result, HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error fetching user quizzes", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public ResponseEntity<?> getUserQuiz(Integer quizId, String authHeader) {
+        try {
+            Quiz quiz = quizDao.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
+
+            Long userId = callerResolver.resolve(authHeader).userId();
+            if (!quiz.getUserId().equals(userId)) {
+                return new ResponseEntity<>("Unauthorized access to quiz", HttpStatus.FORBIDDEN);
+            }
+
+            return new ResponseEntity<>(new QuizResponseDto(quiz.getId(), quiz.getTitle(), quiz.getCreatedAt(),
+                quizSnapshotService.getQuestions(quiz)), HttpStatus.OK);
+
         } catch (ResourceNotFoundException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
         } catch (Exception e) {
-            return new ResponseEntity<>("Error calculating quiz result", HttpStatus.INTERNAL_SERVER_ERROR);
+            return new ResponseEntity<>("Error fetching quiz", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
@@ -0,0 +1,198 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.client.Futures;
+import com.devansh.quizservice.client.QuestionClient;
+import com.devansh.quizservice.dao.QuizSnapshotDao;
+import com.devansh.quizservice.model.QuestionWrapper;
+import com.devansh.quizservice.model.Quiz;
+import com.devansh.quizservice.model.QuizSnapshot;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves quiz content from snapshots stored alongside the quiz, so reads do not call
+ * question-service and a quiz keeps the wording it was created with.
+ * <p>
+ * Quizzes created before snapshots existed (or whose capture failed) are rendered
+ * from question-service once and backfilled.
+ */
+@Service
+public class QuizSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizSnapshotService.class);
+
+    static final short FORMAT_VERSION = 1;
+
+    private static final TypeReference<List<QuestionWrapper>> QUESTION_LIST = new TypeReference<>() {};
+
+    @Autowired
+    private QuizSnapshotDao quizSnapshotDao;
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quiz.details.fetch-batch-size:500}")
+    private int fetchBatchSize;
+
+    /**
+     * Render and store the snapshot for a newly created quiz. A failure is logged rather
+     * than thrown: the quiz is already saved and the snapshot is backfilled on first read.
+     */
+    public void capture(Quiz quiz) {
+        try {
+            Map<Integer, QuestionWrapper> byId = fetchQuestions(distinct(quiz.getQuestionIds()));
+            store(quiz, assemble(quiz.getQuestionIds(), byId));
+        } catch (Exception e) {
+            log.warn("Could not snapshot quiz {}; it will be captured on first read", quiz.getId(), e);
+        }
+    }
+
+    public List<QuestionWrapper> getQuestions(Quiz quiz) {
+        return getQuestions(List.of(quiz)).get(quiz.getId());
+    }
+
+    /**
+     * Questions for each quiz, keyed by quiz id, in stored order. Snapshots are read in one
+     * query; any quizzes without one share a single batched lookup against question-service.
+     */
+    public Map<Integer, List<QuestionWrapper>> getQuestions(List<Quiz> quizzes) {
+        Map<Integer, List<QuestionWrapper>> result = new HashMap<>(quizzes.size() * 2);
+        List<Integer> quizIds = new ArrayList<>(quizzes.size());
+        for (Quiz quiz : quizzes) {
+            quizIds.add(quiz.getId());
+        }
+        for (QuizSnapshot snapshot : quizSnapshotDao.findAllById(quizIds)) {
+            if (snapshot.getVersion() == FORMAT_VERSION) {
+                result.put(snapshot.getQuizId(), decode(snapshot.getContent()));
+            }
+        }
+
+        List<Quiz> missing = new ArrayList<>();
+        Set<Integer> missingQuestionIds = new LinkedHashSet<>();
+        for (Quiz quiz : quizzes) {
+            if (!result.containsKey(quiz.getId())) {
+                missing.add(quiz);
+                missingQuestionIds.addAll(distinct(quiz.getQuestionIds()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Integer, QuestionWrapper> byId = fetchQuestions(missingQuestionIds);
+        for (Quiz quiz : missing) {
+            List<QuestionWrapper> questions = assemble(quiz.getQuestionIds(), byId);
+            result.put(quiz.getId(), questions);
+            backfill(quiz, questions);
+        }
+        return result;
+    }
+
+    private void backfill(Quiz quiz, List<QuestionWrapper> questions) {
+        try {
+            store(quiz, questions);
+        } catch (Exception e) {
+            log.warn("Could not backfill snapshot for quiz {}", quiz.getId(), e);
+        }
+    }
+
+    /**
+     * Insert the snapshot if the quiz has none yet; a concurrent capture that got there first
+     * wins. A snapshot missing questions that question-service did not return is not stored,
+     * so a transient miss is retried on the next read instead of truncating the quiz for good.
+     */
+    private void store(Quiz quiz, List<QuestionWrapper> questions) {
+        int expected = quiz.getQuestionIds() == null ? 0 : quiz.getQuestionIds().size();
+        if (questions.size() != expected) {
+            log.warn("Not snapshotting quiz {}: {} of {} questions resolved", quiz.getId(), questions.size(), expected);
+            return;
+        }
+        quizSnapshotDao.insertIfAbsent(quiz.getId(), FORMAT_VERSION, questions.size(), encode(questions));
+    }
+
+    /**
+     * Resolve distinct question ids in bounded-size bulk calls, issued concurrently, so the
+     * number of remote calls depends on the number of distinct questions rather than the
+     * number of quizzes. Ids question-service no longer knows about are absent from the result.
+     */
+    private Map<Integer, QuestionWrapper> fetchQuestions(Collection<Integer> distinctIds) {
+        List<Integer> ids = new ArrayList<>(distinctIds);
+        int batchSize = Math.max(1, fetchBatchSize);
+        List<CompletableFuture<List<QuestionWrapper>>> calls = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            calls.add(questionClient.getQuestionsFromId(new ArrayList<>(chunk)));
+        }
+
+        Map<Integer, QuestionWrapper> byId = new HashMap<>(distinctIds.size() * 2);
+        for (CompletableFuture<List<QuestionWrapper>> call : calls) {
+            List<QuestionWrapper> questions = Futures.await(call);
+            if (questions != null) {
+                for (QuestionWrapper question : questions) {
+                    byId.put(question.getId(), question);
+                }
+            }
+        }
+        return byId;
+    }
+
+    private static Set<Integer> distinct(List<Integer> questionIds) {
+        return questionIds == null ? Set.of() : new LinkedHashSet<>(questionIds);
+    }
+
+    private static List<QuestionWrapper> assemble(List<Integer> questionIds, Map<Integer, QuestionWrapper> byId) {
+        List<QuestionWrapper> questions = new ArrayList<>();
+        if (questionIds != null) {
+            for (Integer id : questionIds) {
+                QuestionWrapper question = byId.get(id);
+                if (question != null) {
+                    questions.add(question);
+                }
+            }
+        }
+        return questions;
+    }
+
+    private byte[] encode(List<QuestionWrapper> questions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, questions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<QuestionWrapper> decode(byte[] content) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return objectMapper.readValue(in, QUESTION_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.devansh.quizservice.service;
+
+/**
+ * Outcome of one rate-limit check, taken from a single limiter reply.
+ *
+ * @param resetSeconds      seconds until the allowance is fully restored
+ * @param retryAfterSeconds seconds until the next request can be admitted; 0 when allowed
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+}
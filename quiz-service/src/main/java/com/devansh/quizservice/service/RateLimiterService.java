@@ -1,90 +1,316 @@
 package com.devansh.quizservice.service;
 
+import com.devansh.quizservice.annotation.RateLimitAlgorithm;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Two-tier per-key rate limiting.
+ * <p>
+ * The global allowance lives in Redis ({@link RedisQuotaLeaser}). Each node leases permits
+ * from it in chunks of {@code app.rate-limit.lease-fraction} of the limit and admits
+ * requests against its local lease, so Redis sees about one call per lease rather than
+ * one per request. A lease that is being drawn down is topped up in the background when it
+ * runs low. A lease lasts {@code app.rate-limit.lease-ttl-ms}; its unused permits are then
+ * handed back to Redis before the next lease is taken. Permits held in other nodes' live
+ * leases bound the error: about one chunk per node.
+ * <p>
+ * A rejection is remembered locally until its retry-after passes. While Redis is
+ * unreachable, each node enforces the full limit on its own with an in-memory token bucket.
+ */
 @Service
 public class RateLimiterService {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final long maxRequests;
-    private final long durationInSeconds;
+    private static final Logger log = LoggerFactory.getLogger(RateLimiterService.class);
+
     private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
 
+    private final RedisQuotaLeaser leaser;
+    private final long defaultRequests;
+    private final long defaultDurationSeconds;
+    private final double leaseFraction;
+    private final long leaseTtlNanos;
+    private final long redisRetryNanos;
+    private final Cache<String, KeyState> states;
+    private final ExecutorService refillExecutor;
+
+    private volatile long redisUnavailableUntil = System.nanoTime();
+
     @Autowired
     public RateLimiterService(
-            RedisTemplate<String, String> redisTemplate,
-            @Value("${app.rate-limit.requests:5}") long maxRequests,
-            @Value("${app.rate-limit.duration:60}") long durationInSeconds) {
-        this.redisTemplate = redisTemplate;
-        this.maxRequests = maxRequests;
-        this.durationInSeconds = durationInSeconds;
+            RedisQuotaLeaser leaser,
+            @Value("${app.rate-limit.requests:5}") long defaultRequests,
+            @Value("${app.rate-limit.duration:60}") long defaultDurationSeconds,
+            @Value("${app.rate-limit.lease-fraction:0.1}") double leaseFraction,
+            @Value("${app.rate-limit.lease-ttl-ms:1000}") long leaseTtlMillis,
+            @Value("${app.rate-limit.redis-retry-ms:5000}") long redisRetryMillis,
+            @Value("${app.rate-limit.idle-expiry-ms:600000}") long idleExpiryMillis) {
+        this.leaser = leaser;
+        this.defaultRequests = defaultRequests;
+        this.defaultDurationSeconds = defaultDurationSeconds;
+        this.leaseFraction = leaseFraction;
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMillis);
+        this.redisRetryNanos = TimeUnit.MILLISECONDS.toNanos(redisRetryMillis);
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(idleExpiryMillis))
+                .build();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refillExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-lease-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        refillExecutor.shutdownNow();
+    }
+
+    public long getDefaultRequests() {
+        return defaultRequests;
+    }
+
+    public Duration getDefaultWindow() {
+        return Duration.ofSeconds(defaultDurationSeconds);
     }
 
     /**
-     * Checks if the request is allowed based on the user's rate limit
-     * @param userId The ID of the user making the request
-     * @return true if the request is allowed, false if rate limit is exceeded
+     * Try to admit one request for {@code userId} under the named limit.
      */
-    public boolean isAllowed(Long userId) {
-        String key = RATE_LIMIT_KEY_PREFIX + userId;
-        ValueOperations<String, String> ops = redisTemplate.opsForValue();
-        
-        // Get current count
-        String currentCountStr = ops.get(key);
-        int currentCount = 0;
-        
-        if (currentCountStr != null) {
-            currentCount = Integer.parseInt(currentCountStr);
-            
-            // If limit is reached, deny the request
-            if (currentCount >= maxRequests) {
-                return false;
-            }
+    public RateLimitDecision tryAcquire(String name, Long userId, RateLimitAlgorithm algorithm,
+                                        long limit, Duration window) {
+        String key = RATE_LIMIT_KEY_PREFIX + name + ":" + userId;
+        KeyState state = states.get(key, k -> new KeyState(k, algorithm, limit, window));
+        long now = System.nanoTime();
+
+        if (now - state.deniedUntil < 0) {
+            return state.denied(now);
         }
-        
-        // Increment the count and set expiration if this is the first request
-        if (currentCount == 0) {
-            ops.set(key, "1", durationInSeconds, TimeUnit.SECONDS);
-        } else {
-            // Increment the existing counter
-            redisTemplate.opsForValue().increment(key);
+        if (state.take(now)) {
+            maybeRefill(state, now);
+            return state.allowed(now);
+        }
+
+        synchronized (state) {
+            now = System.nanoTime();
+            if (state.take(now)) {
+                return state.allowed(now);
+            }
+            if (now - state.deniedUntil < 0) {
+                return state.denied(now);
+            }
+            if (now - redisUnavailableUntil < 0) {
+                return state.local(now);
+            }
+            reclaim(state);
+            RedisQuotaLeaser.Lease lease;
+            try {
+                lease = leaser.lease(key, algorithm, limit, window, state.chunk);
+            } catch (RuntimeException e) {
+                redisUnavailable(e);
+                return state.local(now);
+            }
+            state.apply(lease, now);
+            if (lease.granted() == 0) {
+                state.deniedUntil = now + TimeUnit.MILLISECONDS.toNanos(lease.retryAfterMillis());
+                return state.denied(now);
+            }
+            state.permits.decrementAndGet();
+            state.taken.incrementAndGet();
+            return state.allowed(now);
         }
-        
-        return true;
     }
-    
+
     /**
-     * Gets the remaining requests for a user before hitting the rate limit
-     * @param userId The ID of the user
-     * @return Number of remaining requests, or -1 if no rate limit is set for the user
+     * Hand back the permit a request admitted by {@link #tryAcquire} took, because the request
+     * was turned away without doing any work. The permit returns to the local pool, and from
+     * there to the next request or to Redis.
      */
-    public long getRemainingRequests(Long userId) {
-        String key = RATE_LIMIT_KEY_PREFIX + userId;
-        String currentCountStr = redisTemplate.opsForValue().get(key);
-        
-        if (currentCountStr == null) {
-            return maxRequests;
-        }
-        
-        long currentCount = Long.parseLong(currentCountStr);
-        return Math.max(0, maxRequests - currentCount);
+    public void refund(String name, Long userId) {
+        KeyState state = states.getIfPresent(RATE_LIMIT_KEY_PREFIX + name + ":" + userId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            long now = System.nanoTime();
+            state.taken.updateAndGet(taken -> Math.max(0, taken - 1));
+            if (now - redisUnavailableUntil < 0) {
+                state.localTokens = Math.min(state.limit, state.localTokens + 1);
+                return;
+            }
+            state.permits.incrementAndGet();
+            if (now - state.leaseExpiresAt >= 0) {
+                reclaim(state);
+            }
+        }
     }
-    
+
+    // Top up a lease that is running low without making the caller wait. A lease used only
+    // once is not topped up: a caller that sends requests far apart would let the top-up lapse
+    private void maybeRefill(KeyState state, long now) {
+        if (state.permits.get() > state.lowWater || state.taken.get() < 2 || state.refilling
+                || now - redisUnavailableUntil < 0) {
+            return;
+        }
+        synchronized (state) {
+            if (state.refilling) {
+                return;
+            }
+            state.refilling = true;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                RedisQuotaLeaser.Lease lease = leaser.lease(state.key, state.algorithm, state.limit, state.window, state.chunk);
+                synchronized (state) {
+                    long appliedAt = System.nanoTime();
+                    if (appliedAt - state.leaseExpiresAt >= 0) {
+                        reclaim(state);
+                    }
+                    state.apply(lease, appliedAt);
+                }
+            } catch (RuntimeException e) {
+                redisUnavailable(e);
+            } finally {
+                state.refilling = false;
+            }
+        }, refillExecutor);
+    }
+
     /**
-     * Gets the time remaining until the rate limit resets (in seconds)
-     * @param userId The ID of the user
-     * @return Time remaining in seconds, or 0 if no rate limit is active
+     * Hand the permits left in the local pool back to Redis and forget the leases they came
+     * from. Caller holds the lock on {@code state}; lock-free takes see an empty pool from here on.
      */
-    public long getTimeUntilReset(Long userId) {
-        String key = RATE_LIMIT_KEY_PREFIX + userId;
-        Long expire = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        return expire != null ? expire : 0;
+    private void reclaim(KeyState state) {
+        long unused = state.permits.getAndSet(0);
+        List<RedisQuotaLeaser.Lease> leases = new ArrayList<>(state.held);
+        state.held.clear();
+        state.taken.set(0);
+        if (unused <= 0) {
+            return;
+        }
+        try {
+            leaser.release(state.key, state.algorithm, state.limit, state.window, leases, unused);
+        } catch (RuntimeException e) {
+            // The permits lapse with the window instead
+            log.debug("Could not return {} unused permits for {}", unused, state.key, e);
+        }
+    }
+
+    private void redisUnavailable(RuntimeException e) {
+        long now = System.nanoTime();
+        if (now - redisUnavailableUntil >= 0) {
+            log.warn("Redis rate limiter unavailable, enforcing limits locally for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(redisRetryNanos), e);
+        }
+        redisUnavailableUntil = now + redisRetryNanos;
+    }
+
+    private final class KeyState {
+        final String key;
+        final RateLimitAlgorithm algorithm;
+        final long limit;
+        final Duration window;
+        final long chunk;
+        final long lowWater;
+
+        final AtomicLong permits = new AtomicLong();
+        // Requests admitted since the pool was last reclaimed
+        final AtomicLong taken = new AtomicLong();
+        // Leases whose permits are in the pool, oldest first; guarded by this
+        final List<RedisQuotaLeaser.Lease> held = new ArrayList<>();
+        volatile long leaseExpiresAt;
+        volatile long deniedUntil;
+        volatile boolean refilling;
+
+        // From the most recent Redis reply
+        volatile long globalRemaining;
+        volatile long resetAt;
+
+        // Local-only fallback bucket, guarded by this
+        double localTokens;
+        long localRefilledAt;
+
+        KeyState(String key, RateLimitAlgorithm algorithm, long limit, Duration window) {
+            this.key = key;
+            this.algorithm = algorithm;
+            this.limit = limit;
+            this.window = window;
+            this.chunk = Math.max(1, (long) Math.ceil(limit * leaseFraction));
+            this.lowWater = chunk / 5;
+            this.leaseExpiresAt = System.nanoTime();
+            this.deniedUntil = leaseExpiresAt;
+            this.localTokens = limit;
+            this.localRefilledAt = leaseExpiresAt;
+        }
+
+        boolean take(long now) {
+            if (now - leaseExpiresAt >= 0) {
+                return false;
+            }
+            if (permits.getAndUpdate(p -> p > 0 ? p - 1 : p) > 0) {
+                taken.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        // Caller holds the lock on this and has reclaimed the pool if the lease expired
+        void apply(RedisQuotaLeaser.Lease lease, long now) {
+            permits.addAndGet(lease.granted());
+            if (lease.granted() > 0) {
+                held.add(lease);
+                leaseExpiresAt = now + Math.min(leaseTtlNanos, window.toNanos());
+            }
+            globalRemaining = lease.remaining();
+            resetAt = now + TimeUnit.MILLISECONDS.toNanos(lease.resetMillis());
+        }
+
+        RateLimitDecision allowed(long now) {
+            return new RateLimitDecision(true, limit, globalRemaining + Math.max(0, permits.get()),
+                    seconds(resetAt - now), 0);
+        }
+
+        RateLimitDecision denied(long now) {
+            long retry = seconds(deniedUntil - now);
+            return new RateLimitDecision(false, limit, 0, Math.max(retry, seconds(resetAt - now)), retry);
+        }
+
+        // Caller holds the lock on this
+        RateLimitDecision local(long now) {
+            double perNano = (double) limit / window.toNanos();
+            localTokens = Math.min(limit, localTokens + (now - localRefilledAt) * perNano);
+            localRefilledAt = now;
+            boolean allowed = localTokens >= 1;
+            if (allowed) {
+                localTokens -= 1;
+            }
+            long toFull = seconds((long) Math.ceil((limit - localTokens) / perNano));
+            if (allowed) {
+                return new RateLimitDecision(true, limit, (long) localTokens, toFull, 0);
+            }
+            long retry = seconds((long) Math.ceil((1 - localTokens) / perNano));
+            return new RateLimitDecision(false, limit, 0, toFull, retry);
+        }
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
     }
 }
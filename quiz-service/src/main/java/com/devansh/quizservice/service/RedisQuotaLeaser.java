@@ -0,0 +1,98 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.annotation.RateLimitAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Takes permits from a global allowance held in Redis. Each call is one Lua script
+ * evaluation, so it is atomic across instances and costs a single round trip.
+ * Scripts live in {@code src/main/resources/scripts}.
+ */
+@Component
+public class RedisQuotaLeaser {
+
+    /**
+     * Reply to one lease request. Durations are in milliseconds; {@code id} identifies the
+     * permits this lease took, so unused ones can be {@link #release released}.
+     */
+    public record Lease(String id, long granted, long remaining, long resetMillis, long retryAfterMillis) {
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SLIDING_WINDOW_LOG =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit_sliding_window_log.lua"), List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit_token_bucket.lua"), List.class);
+
+    private static final RedisScript<Long> TOKEN_BUCKET_RELEASE =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit_token_bucket_release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public RedisQuotaLeaser(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Take up to {@code permits} permits from the allowance stored under {@code key}.
+     */
+    public Lease lease(String key, RateLimitAlgorithm algorithm, long limit, Duration window, long permits) {
+        String id = UUID.randomUUID().toString();
+        String windowMillis = String.valueOf(window.toMillis());
+        List<?> reply = switch (algorithm) {
+            case SLIDING_WINDOW_LOG -> redisTemplate.execute(SLIDING_WINDOW_LOG, List.of(key),
+                    String.valueOf(limit), windowMillis, id, String.valueOf(permits));
+            case TOKEN_BUCKET -> redisTemplate.execute(TOKEN_BUCKET, List.of(key),
+                    String.valueOf(limit), windowMillis, String.valueOf(permits));
+        };
+        if (reply == null || reply.size() < 4) {
+            throw new IllegalStateException("Unexpected rate limiter reply: " + reply);
+        }
+        return new Lease(id, toLong(reply.get(0)), Math.max(0, toLong(reply.get(1))),
+                toLong(reply.get(2)), toLong(reply.get(3)));
+    }
+
+    /**
+     * Give {@code permits} unused permits back to the allowance. {@code leases} are the leases
+     * they came from, oldest first; permits are fungible, so the newest ones are returned.
+     */
+    public void release(String key, RateLimitAlgorithm algorithm, long limit, Duration window,
+                        List<Lease> leases, long permits) {
+        if (permits <= 0) {
+            return;
+        }
+        switch (algorithm) {
+            case SLIDING_WINDOW_LOG -> {
+                // The log script names a lease's entries <id>:1 .. <id>:<granted>
+                List<String> members = new ArrayList<>();
+                for (int i = leases.size() - 1; i >= 0 && members.size() < permits; i--) {
+                    Lease lease = leases.get(i);
+                    for (long n = lease.granted(); n >= 1 && members.size() < permits; n--) {
+                        members.add(lease.id() + ":" + n);
+                    }
+                }
+                if (!members.isEmpty()) {
+                    redisTemplate.opsForZSet().remove(key, members.toArray());
+                }
+            }
+            case TOKEN_BUCKET -> redisTemplate.execute(TOKEN_BUCKET_RELEASE, List.of(key),
+                    String.valueOf(limit), String.valueOf(window.toMillis()), String.valueOf(permits));
+        }
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+}
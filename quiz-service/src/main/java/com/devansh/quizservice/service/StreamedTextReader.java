@@ -0,0 +1,80 @@
+package com.devansh.quizservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * A {@link Reader} over text that arrives in chunks, such as a streamed model response.
+ * Each chunk is pulled only when the previous one has been read, so the consumer works on
+ * the first chunk while the rest are still being produced.
+ * <p>
+ * A stream that fails after some text was delivered ends the input there, the same as
+ * output that was cut off; a stream that fails before any text is reported as an
+ * {@link IOException}. Closing the reader runs {@code onClose}, which should cancel the
+ * stream if it is still open.
+ */
+final class StreamedTextReader extends Reader {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamedTextReader.class);
+
+    private final Iterator<String> chunks;
+    private final Runnable onClose;
+    private String current = "";
+    private int position;
+    private boolean delivered;
+    private boolean closed;
+
+    StreamedTextReader(Iterator<String> chunks, Runnable onClose) {
+        this.chunks = chunks;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Reader is closed");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (position == current.length()) {
+            if (!nextChunk()) {
+                return -1;
+            }
+        }
+        int count = Math.min(length, current.length() - position);
+        current.getChars(position, position + count, buffer, offset);
+        position += count;
+        return count;
+    }
+
+    private boolean nextChunk() throws IOException {
+        try {
+            if (!chunks.hasNext()) {
+                return false;
+            }
+            current = chunks.next();
+            position = 0;
+            delivered |= !current.isEmpty();
+            return true;
+        } catch (RuntimeException e) {
+            if (!delivered) {
+                throw new IOException("Model stream failed before returning any text", e);
+            }
+            log.warn("Model stream failed part way through; keeping the text received so far", e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.run();
+        }
+    }
+}
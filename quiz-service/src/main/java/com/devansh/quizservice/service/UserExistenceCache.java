@@ -0,0 +1,159 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.client.UserClient;
+import com.devansh.quizservice.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Answers "does this user still exist?" for quiz creation without calling user-service.
+ * <p>
+ * The caller's token says the user existed when it was issued, so a user is assumed to
+ * exist unless a Bloom filter of deleted user ids says it might have been deleted; only
+ * then is user-service asked. Answers are cached for {@code quiz.users.cache-ttl-ms}.
+ * <p>
+ * user-service publishes deleted ids on a Redis channel and records them in a Redis set.
+ * The set seeds the filter at startup and is re-read every {@code quiz.users.reseed-interval-ms},
+ * since pub/sub drops messages published while the subscription is down. Until the first
+ * load succeeds, every unknown user is checked remotely.
+ */
+@Service
+public class UserExistenceCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceCache.class);
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${quiz.users.cache-ttl-ms:600000}")
+    private long cacheTtlMillis;
+
+    @Value("${quiz.users.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${quiz.users.deleted-expected:100000}")
+    private long deletedExpected;
+
+    @Value("${quiz.users.deleted-false-positive-rate:0.01}")
+    private double deletedFalsePositiveRate;
+
+    @Value("${quiz.users.deleted-channel:user.deleted}")
+    private String deletedChannel;
+
+    @Value("${quiz.users.deleted-set:users:deleted}")
+    private String deletedSet;
+
+    private Cache<Long, Boolean> known;
+    private LongBloomFilter deleted;
+    private volatile boolean seeded;
+
+    @PostConstruct
+    void init() {
+        known = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMillis))
+            .maximumSize(cacheMaxSize)
+            .build();
+        deleted = new LongBloomFilter(deletedExpected, deletedFalsePositiveRate);
+        listenerContainer.addMessageListener(this, new ChannelTopic(deletedChannel));
+        seed();
+    }
+
+    /**
+     * Completes normally if the user exists, or exceptionally with
+     * {@link ResourceNotFoundException} if it does not.
+     */
+    public CompletableFuture<Void> requireUser(Long userId, String authHeader) {
+        Boolean exists = known.getIfPresent(userId);
+        if (exists == null && !deleted.mightContain(userId) && seeded) {
+            known.put(userId, Boolean.TRUE);
+            exists = Boolean.TRUE;
+        }
+        if (exists != null) {
+            return exists
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new ResourceNotFoundException("User", "id", userId));
+        }
+
+        return userClient.requireUser(userId, authHeader).whenComplete((ignored, error) -> {
+            if (error == null) {
+                known.put(userId, Boolean.TRUE);
+            } else if (unwrap(error) instanceof ResourceNotFoundException) {
+                known.put(userId, Boolean.FALSE);
+            }
+        });
+    }
+
+    public void userDeleted(Long userId) {
+        deleted.add(userId);
+        known.put(userId, Boolean.FALSE);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8).trim();
+        try {
+            userDeleted(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed user deletion message '{}'", body);
+        }
+    }
+
+    /**
+     * Reconcile with the deleted-user set, picking up deletions whose message was missed.
+     */
+    @Scheduled(initialDelayString = "${quiz.users.reseed-interval-ms:60000}",
+            fixedDelayString = "${quiz.users.reseed-interval-ms:60000}")
+    public synchronized void seed() {
+        ScanOptions options = ScanOptions.scanOptions().count(1000).build();
+        try (Cursor<String> ids = redisTemplate.opsForSet().scan(deletedSet, options)) {
+            int count = 0;
+            while (ids.hasNext()) {
+                String id = ids.next();
+                try {
+                    long userId = Long.parseLong(id);
+                    deleted.add(userId);
+                    // Drops a cached "exists" answer for a user whose deletion was missed
+                    known.asMap().remove(userId, Boolean.TRUE);
+                    count++;
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed deleted user id '{}'", id);
+                }
+            }
+            if (!seeded) {
+                log.info("Loaded {} deleted user ids", count);
+            }
+            seeded = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not load deleted user ids; users will be checked with user-service", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
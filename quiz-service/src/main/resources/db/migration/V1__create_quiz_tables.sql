@@ -0,0 +1,12 @@
+-- Schema previously created by hibernate.ddl-auto=update; a no-op on existing databases
+CREATE TABLE IF NOT EXISTS quizzes (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    user_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS quiz_question_ids (
+    quiz_id INTEGER NOT NULL REFERENCES quizzes (id),
+    question_ids INTEGER
+);
@@ -0,0 +1,18 @@
+-- Store a quiz's question ids inline as int[] so a quiz is written and read in one statement
+ALTER TABLE quizzes ADD COLUMN question_ids INTEGER[] NOT NULL DEFAULT '{}';
+
+-- The join table had no order column; physical row order is the insertion order
+UPDATE quizzes q
+SET question_ids = agg.ids
+FROM (
+    SELECT quiz_id, array_agg(question_ids ORDER BY ctid) AS ids
+    FROM quiz_question_ids
+    WHERE question_ids IS NOT NULL
+    GROUP BY quiz_id
+) agg
+WHERE agg.quiz_id = q.id;
+
+DROP TABLE quiz_question_ids;
+
+-- Backs QuizDao.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX IF NOT EXISTS ix_quizzes_user_created ON quizzes (user_id, created_at DESC);
@@ -0,0 +1,9 @@
+-- Rendered questions captured when a quiz is created (gzipped JSON array of QuestionWrapper),
+-- so reading a quiz does not depend on question-service
+CREATE TABLE quiz_snapshots (
+    quiz_id INTEGER PRIMARY KEY REFERENCES quizzes (id) ON DELETE CASCADE,
+    version SMALLINT NOT NULL,
+    question_count INTEGER NOT NULL,
+    content BYTEA NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
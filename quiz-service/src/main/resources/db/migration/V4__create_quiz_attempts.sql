@@ -0,0 +1,15 @@
+-- Graded quiz submissions, written in batches by the grading workers
+CREATE TABLE quiz_attempts (
+    id UUID PRIMARY KEY,
+    quiz_id INTEGER NOT NULL REFERENCES quizzes (id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    score INTEGER,
+    total INTEGER NOT NULL,
+    responses JSONB NOT NULL,
+    submitted_at TIMESTAMP(6) NOT NULL,
+    graded_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX ix_quiz_attempts_quiz ON quiz_attempts (quiz_id);
+CREATE INDEX ix_quiz_attempts_user_submitted ON quiz_attempts (user_id, submitted_at DESC);
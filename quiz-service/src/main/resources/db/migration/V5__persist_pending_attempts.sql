@@ -0,0 +1,5 @@
+-- Attempts are written as PENDING when a grading worker picks them up and completed in place,
+-- so an accepted attempt survives a restart; graded_at stays null until then
+ALTER TABLE quiz_attempts ALTER COLUMN graded_at DROP NOT NULL;
+
+CREATE INDEX ix_quiz_attempts_pending ON quiz_attempts (submitted_at) WHERE status = 'PENDING';
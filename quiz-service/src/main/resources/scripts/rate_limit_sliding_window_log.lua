@@ -0,0 +1,31 @@
+-- Sliding-window-log limiter: one sorted-set member per admitted request, scored by time.
+-- Callers may lease several permits at once; each granted permit is logged as a member.
+-- KEYS[1] log key
+-- ARGV[1] limit, ARGV[2] window (ms), ARGV[3] unique member prefix for this call, ARGV[4] permits wanted
+-- Returns {granted, remaining, reset (ms until the oldest entry leaves the window), retry after (ms)}
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[4])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+local count = redis.call('ZCARD', key)
+local granted = math.max(0, math.min(wanted, limit - count))
+for i = 1, granted do
+    redis.call('ZADD', key, now, ARGV[3] .. ':' .. i)
+end
+count = count + granted
+redis.call('PEXPIRE', key, window)
+
+local reset = window
+local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+if oldest[2] then
+    reset = math.max(0, tonumber(oldest[2]) + window - now)
+end
+local retry = 0
+if granted == 0 then
+    retry = reset
+end
+return {granted, limit - count, reset, retry}
@@ -0,0 +1,34 @@
+-- Token-bucket limiter: the bucket holds up to `capacity` tokens and refills `capacity`
+-- tokens per window, continuously. Callers may lease several tokens at once.
+-- KEYS[1] bucket key
+-- ARGV[1] capacity, ARGV[2] window (ms), ARGV[3] tokens wanted
+-- Returns {granted, remaining, reset (ms until the bucket is full), retry after (ms)}
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local rate = capacity / window
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+local granted = math.max(0, math.min(wanted, math.floor(tokens)))
+tokens = tokens - granted
+
+local reset = math.ceil((capacity - tokens) / rate)
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', key, math.max(1, reset))
+
+local retry = 0
+if granted == 0 then
+    retry = math.ceil((1 - tokens) / rate)
+end
+return {granted, math.floor(tokens), reset, retry}
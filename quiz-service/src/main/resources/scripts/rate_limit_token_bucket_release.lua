@@ -0,0 +1,25 @@
+-- Returns unused leased tokens to a token bucket, never above capacity.
+-- KEYS[1] bucket key
+-- ARGV[1] capacity, ARGV[2] window (ms), ARGV[3] tokens returned
+-- Returns the tokens now in the bucket
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local returned = tonumber(ARGV[3])
+local rate = capacity / window
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    -- Expired: the bucket is already full
+    return capacity
+end
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate + returned)
+
+local reset = math.ceil((capacity - tokens) / rate)
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', key, math.max(1, reset))
+return math.floor(tokens)
@@ -0,0 +1,66 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.client.QuestionClient;
+import com.devansh.quizservice.dto.QuestionImportReport;
+import com.devansh.quizservice.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionBatchWriterTest {
+
+	private static QuestionImportReport report(List<Integer> insertedIds, QuestionImportReport.RowError... errors) {
+		QuestionImportReport report = new QuestionImportReport();
+		report.setAccepted(insertedIds.size());
+		report.setRejected(errors.length);
+		report.setInsertedIds(new ArrayList<>(insertedIds));
+		report.setErrors(new ArrayList<>(List.of(errors)));
+		return report;
+	}
+
+	private static QuestionImportReport.RowError error(long row, Integer duplicateOf) {
+		QuestionImportReport.RowError error = new QuestionImportReport.RowError();
+		error.setRow(row);
+		error.setDuplicateOf(duplicateOf);
+		return error;
+	}
+
+	@Test
+	void duplicatesOfStoredQuestionsAreReusedInOrder() {
+		QuestionClient questionClient = mock(QuestionClient.class);
+		when(questionClient.addQuestions(any())).thenReturn(
+				// Row 2 is already in the bank as 5
+				CompletableFuture.completedFuture(report(List.of(10, 11), error(2, 5))),
+				// Row 1 is invalid, row 2 duplicates question 10 from the first batch
+				CompletableFuture.completedFuture(report(List.of(12), error(1, null), error(2, 10))));
+
+		QuestionBatchWriter writer = new QuestionBatchWriter(questionClient, 3);
+		for (int i = 0; i < 6; i++) {
+			writer.add(new Question());
+		}
+
+		assertEquals(List.of(10, 5, 11, 12), writer.finish());
+	}
+
+	@Test
+	void unreportedRowsKeepTheInsertedIds() {
+		QuestionClient questionClient = mock(QuestionClient.class);
+		QuestionImportReport truncated = report(List.of(20, 21), error(1, 7));
+		truncated.setRejected(2);
+		when(questionClient.addQuestions(any())).thenReturn(CompletableFuture.completedFuture(truncated));
+
+		QuestionBatchWriter writer = new QuestionBatchWriter(questionClient, 10);
+		for (int i = 0; i < 4; i++) {
+			writer.add(new Question());
+		}
+
+		assertEquals(List.of(20, 21, 7), writer.finish());
+	}
+}
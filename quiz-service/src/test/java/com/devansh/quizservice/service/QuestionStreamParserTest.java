@@ -0,0 +1,152 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionStreamParserTest {
+
+	private final QuestionStreamParser parser = new QuestionStreamParser();
+
+	private static String question(String title, String answer) {
+		return "{\"questionTitle\": \"" + title + "\", \"option1\": \"Red\", \"option2\": \"Green\", "
+				+ "\"option3\": \"Blue\", \"option4\": \"Yellow\", \"rightAnswer\": \"" + answer + "\"}";
+	}
+
+	private List<Question> parse(String output, QuestionStreamParser.Result expected) throws IOException {
+		List<Question> questions = new ArrayList<>();
+		QuestionStreamParser.Result result = parser.parse(new StringReader(output), "Colours", "Easy", questions::add);
+		assertEquals(expected, result);
+		assertEquals(expected.accepted(), questions.size());
+		return questions;
+	}
+
+	@Test
+	void skipsProseBeforeAndTextAfterTheArray() throws IOException {
+		String output = "Sure! Here are your questions:\n[" + question("Q1", "Red") + "]\nLet me know if you need more.";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(1, 0));
+		assertEquals("Q1", questions.get(0).getQuestionTitle());
+		assertEquals("Colours", questions.get(0).getCategory());
+		assertEquals("Easy", questions.get(0).getDifficultylevel());
+	}
+
+	@Test
+	void skipsACodeFence() throws IOException {
+		String output = "```json\n[\n  " + question("Q1", "Red") + ",\n  " + question("Q2", "Blue") + "\n]\n```";
+		parse(output, new QuestionStreamParser.Result(2, 0));
+	}
+
+	@Test
+	void acceptsSingleQuotesCommentsAndTrailingCommas() throws IOException {
+		String output = """
+				[
+				  // the first question
+				  {'questionTitle': 'Q1', 'option1': 'Red', 'option2': 'Green', 'option3': 'Blue',
+				   'option4': 'Yellow', 'rightAnswer': 'Green',},
+				  /* the second one */
+				  {"questionTitle": "Q2", "option1": "Red", "option2": "Green", "option3": "Blue",
+				   "option4": "Yellow", "rightAnswer": "Yellow"},
+				]
+				""";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(2, 0));
+		assertEquals("Green", questions.get(0).getRightAnswer());
+		assertEquals("Yellow", questions.get(1).getRightAnswer());
+	}
+
+	@Test
+	void skipsArraysOfNonObjectsBeforeTheQuestions() throws IOException {
+		String output = "Topics [1, 2, 3] and tags [\"a\", \"b\"], then:\n[[" + question("Q1", "Red") + "]]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(1, 0));
+		assertEquals("Q1", questions.get(0).getQuestionTitle());
+	}
+
+	@Test
+	void rejectsNonObjectElementsInsideTheArray() throws IOException {
+		String output = "[" + question("Q1", "Red") + ", 42, [\"x\"], " + question("Q2", "Red") + "]";
+		parse(output, new QuestionStreamParser.Result(2, 2));
+	}
+
+	@Test
+	void keepsQuestionsReadBeforeTruncation() throws IOException {
+		String output = "[" + question("Q1", "Red") + ", {\"questionTitle\": \"Q2\", \"option1\": \"Re";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(1, 0));
+		assertEquals("Q1", questions.get(0).getQuestionTitle());
+	}
+
+	@Test
+	void returnsNothingWithoutAnArray() throws IOException {
+		parse("I cannot help with that.", new QuestionStreamParser.Result(0, 0));
+	}
+
+	@Test
+	void resolvesNumericAnswers() throws IOException {
+		String output = "[" + question("Q1", "1") + "," + question("Q2", "2") + ","
+				+ question("Q3", "3") + "," + question("Q4", " 4 ") + "]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(4, 0));
+		assertEquals(List.of("Red", "Green", "Blue", "Yellow"),
+				questions.stream().map(Question::getRightAnswer).toList());
+	}
+
+	@Test
+	void resolvesLetterAnswers() throws IOException {
+		String output = "[" + question("Q1", "A") + "," + question("Q2", "b") + ","
+				+ question("Q3", "C") + "," + question("Q4", "d") + "]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(4, 0));
+		assertEquals(List.of("Red", "Green", "Blue", "Yellow"),
+				questions.stream().map(Question::getRightAnswer).toList());
+	}
+
+	@Test
+	void answerTextMatchesOptionsIgnoringCase() throws IOException {
+		List<Question> questions = parse("[" + question("Q1", "blue") + "]", new QuestionStreamParser.Result(1, 0));
+		assertEquals("Blue", questions.get(0).getRightAnswer());
+	}
+
+	@Test
+	void rejectsAnswersMatchingNoOption() throws IOException {
+		String output = "[" + question("Q1", "Purple") + "," + question("Q2", "5") + "," + question("Q3", "E") + "]";
+		parse(output, new QuestionStreamParser.Result(0, 3));
+	}
+
+	@Test
+	void rejectsDuplicateOptions() throws IOException {
+		String output = "[{\"questionTitle\": \"Q1\", \"option1\": \"Red\", \"option2\": \"red \", "
+				+ "\"option3\": \"Blue\", \"option4\": \"Yellow\", \"rightAnswer\": \"Blue\"}, "
+				+ question("Q2", "Red") + "]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(1, 1));
+		assertEquals("Q2", questions.get(0).getQuestionTitle());
+	}
+
+	@Test
+	void rejectsFieldsOverTheLengthLimit() throws IOException {
+		String output = "[" + question("x".repeat(256), "Red") + "," + question("x".repeat(255), "Red") + "]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(1, 1));
+		assertEquals(255, questions.get(0).getQuestionTitle().length());
+	}
+
+	@Test
+	void rejectsCategoriesLongerThanTheStoredColumn() throws IOException {
+		String tooLong = "{\"questionTitle\": \"Q1\", \"option1\": \"Red\", \"option2\": \"Green\", \"option3\": \"Blue\", "
+				+ "\"option4\": \"Yellow\", \"rightAnswer\": \"Red\", \"category\": \"" + "c".repeat(51) + "\"}";
+		String fits = tooLong.replace("c".repeat(51), "c".repeat(50));
+		String longDifficulty = tooLong.replace("\"category\"", "\"difficultyLevel\"");
+		List<Question> questions = parse("[" + tooLong + "," + fits + "," + longDifficulty + "]",
+				new QuestionStreamParser.Result(1, 2));
+		assertEquals("c".repeat(50), questions.get(0).getCategory());
+	}
+
+	@Test
+	void rejectsQuestionsWithMissingFields() throws IOException {
+		String output = "[{\"questionTitle\": \"Q1\", \"option1\": \"Red\", \"option2\": \"Green\", "
+				+ "\"option3\": \"Blue\", \"rightAnswer\": \"Red\"}, {\"questionTitle\": \"  \"}]";
+		List<Question> questions = parse(output, new QuestionStreamParser.Result(0, 2));
+		assertTrue(questions.isEmpty());
+	}
+}
@@ -0,0 +1,77 @@
+package com.devansh.quizservice.service;
+
+import com.devansh.quizservice.annotation.RateLimitAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterServiceTest {
+
+	private static final Duration WINDOW = Duration.ofSeconds(60);
+
+	/**
+	 * One global allowance per limiter, with no window expiry inside a test.
+	 */
+	static final class FakeLeaser extends RedisQuotaLeaser {
+		long used;
+
+		FakeLeaser() {
+			super(null);
+		}
+
+		@Override
+		public synchronized Lease lease(String key, RateLimitAlgorithm algorithm, long limit, Duration window, long permits) {
+			long granted = Math.max(0, Math.min(permits, limit - used));
+			used += granted;
+			return new Lease(UUID.randomUUID().toString(), granted, limit - used, window.toMillis(),
+					granted == 0 ? window.toMillis() : 0);
+		}
+
+		@Override
+		public synchronized void release(String key, RateLimitAlgorithm algorithm, long limit, Duration window,
+										 List<Lease> leases, long permits) {
+			used -= permits;
+		}
+	}
+
+	private RateLimiterService limiter;
+
+	@AfterEach
+	void stop() {
+		if (limiter != null) {
+			limiter.stop();
+		}
+	}
+
+	private void spacedRequestsUnderLimitAreAllAdmitted(long limit) throws InterruptedException {
+		FakeLeaser leaser = new FakeLeaser();
+		// 10 ms leases, so every request below finds the previous lease expired
+		limiter = new RateLimiterService(leaser, limit, WINDOW.toSeconds(), 0.1, 10, 5_000, 600_000);
+
+		for (int i = 0; i < limit; i++) {
+			RateLimitDecision decision = limiter.tryAcquire("test", 1L, RateLimitAlgorithm.SLIDING_WINDOW_LOG, limit, WINDOW);
+			assertTrue(decision.allowed(), "request " + (i + 1) + " of " + limit);
+			Thread.sleep(25);
+		}
+		assertFalse(limiter.tryAcquire("test", 1L, RateLimitAlgorithm.SLIDING_WINDOW_LOG, limit, WINDOW).allowed());
+		assertEquals(limit, leaser.used);
+	}
+
+	@Test
+	void spacedRequestsWithSinglePermitLeases() throws InterruptedException {
+		spacedRequestsUnderLimitAreAllAdmitted(5);
+	}
+
+	@Test
+	void spacedRequestsWithMultiPermitLeases() throws InterruptedException {
+		spacedRequestsUnderLimitAreAllAdmitted(40);
+	}
+
+}
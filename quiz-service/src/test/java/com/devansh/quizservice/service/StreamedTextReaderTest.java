@@ -0,0 +1,96 @@
+package com.devansh.quizservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamedTextReaderTest {
+
+	/**
+	 * Chunks that record how many have been pulled, optionally failing after the last one.
+	 */
+	private static final class Chunks implements Iterator<String> {
+		private final List<String> chunks;
+		private final boolean failAtEnd;
+		int pulled;
+
+		Chunks(boolean failAtEnd, String... chunks) {
+			this.chunks = List.of(chunks);
+			this.failAtEnd = failAtEnd;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (pulled == chunks.size() && failAtEnd) {
+				throw new IllegalStateException("stream reset");
+			}
+			return pulled < chunks.size();
+		}
+
+		@Override
+		public String next() {
+			return chunks.get(pulled++);
+		}
+	}
+
+	private static String readAll(StreamedTextReader reader) throws IOException {
+		StringWriter out = new StringWriter();
+		reader.transferTo(out);
+		return out.toString();
+	}
+
+	@Test
+	void readsChunksInOrder() throws IOException {
+		Chunks chunks = new Chunks(false, "Here: [", "", "{\"a\": 1}", "]");
+		assertEquals("Here: [{\"a\": 1}]", readAll(new StreamedTextReader(chunks, () -> {
+		})));
+	}
+
+	@Test
+	void questionsReachTheCallerBeforeLaterChunksArePulled() throws IOException {
+		String first = "{\"questionTitle\": \"Q1\", \"option1\": \"a\", \"option2\": \"b\", \"option3\": \"c\", "
+				+ "\"option4\": \"d\", \"rightAnswer\": \"A\"}";
+		String second = first.replace("Q1", "Q2");
+		Chunks chunks = new Chunks(false, "```json\n[", first, ",", second.substring(0, 40), second.substring(40), "]\n```");
+		List<Integer> pulledWhenAccepted = new ArrayList<>();
+
+		new QuestionStreamParser().parse(new StreamedTextReader(chunks, () -> {
+		}), "Java", "Easy", question -> pulledWhenAccepted.add(chunks.pulled));
+
+		// Each question is handed over as soon as the chunk that completes it arrives
+		assertEquals(List.of(2, 5), pulledWhenAccepted);
+	}
+
+	@Test
+	void failureAfterTextEndsTheInput() throws IOException {
+		Chunks chunks = new Chunks(true, "[{\"a\"", ": 1}");
+		assertEquals("[{\"a\": 1}", readAll(new StreamedTextReader(chunks, () -> {
+		})));
+	}
+
+	@Test
+	void failureBeforeAnyTextIsReported() {
+		Chunks chunks = new Chunks(true, "");
+		assertThrows(IOException.class, () -> readAll(new StreamedTextReader(chunks, () -> {
+		})));
+	}
+
+	@Test
+	void closeCancelsTheStreamOnce() throws IOException {
+		int[] cancelled = {0};
+		StreamedTextReader reader = new StreamedTextReader(new Chunks(false, "[1, 2]", "trailing"), () -> cancelled[0]++);
+		char[] buffer = new char[3];
+		assertEquals(3, reader.read(buffer, 0, 3));
+		reader.close();
+		reader.close();
+		assertEquals(1, cancelled[0]);
+		assertThrows(IOException.class, () -> reader.read(buffer, 0, 3));
+	}
+}
@@ -0,0 +1,7 @@
+package com.devansh.user.event;
+
+/**
+ * Raised inside the transaction that deletes a user; announced to other services once it commits.
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -0,0 +1,39 @@
+package com.devansh.user.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tells services that cache user existence (quiz-service) that a user is gone.
+ * The id is added to a Redis set, so a subscriber that was offline can catch up on start,
+ * and published on a pub/sub channel for subscribers that are running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDeletionPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${users.deleted.channel:user.deleted}")
+    private String channel;
+
+    @Value("${users.deleted.set:users:deleted}")
+    private String deletedSet;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        String userId = String.valueOf(event.userId());
+        try {
+            redisTemplate.opsForSet().add(deletedSet, userId);
+            redisTemplate.convertAndSend(channel, userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not announce deletion of user {}", userId, e);
+        }
+    }
+}
@@ -2,13 +2,16 @@ package com.devansh.user.service;
 
 import com.devansh.user.dto.UserRequest;
 import com.devansh.user.dto.UserResponse;
+import com.devansh.user.event.UserDeletedEvent;
 import com.devansh.user.exception.ResourceNotFoundException;
 import com.devansh.user.model.User;
 import com.devansh.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,7 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -103,6 +107,7 @@ public class UserService implements UserDetailsService {
     public void deleteUser(Long id) {
         User user = findUserById(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     private UserResponse mapToUserResponse(User user) {